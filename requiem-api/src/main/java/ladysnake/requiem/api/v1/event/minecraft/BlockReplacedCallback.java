@@ -19,12 +19,20 @@ package ladysnake.requiem.api.v1.event.minecraft;
 
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.tag.TagKey;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
 @FunctionalInterface
 public interface BlockReplacedCallback {
+    /**
+     * Fired every time a block state gets replaced in a world, including during world generation.
+     *
+     * <p>Listeners that only care about specific blocks or areas should be registered through
+     * {@link #registerTagChange(TagKey, BlockReplacedCallback)} or {@link #registerInChunks(ChunkFilter, BlockReplacedCallback)}.
+     */
     Event<BlockReplacedCallback> EVENT = EventFactory.createArrayBacked(BlockReplacedCallback.class,
         (callbacks) -> (oldState, world, pos, newState, moved) -> {
             for (BlockReplacedCallback callback : callbacks) {
@@ -33,4 +41,36 @@ public interface BlockReplacedCallback {
         });
 
     void onBlockPlaced(BlockState oldState, World world, BlockPos pos, BlockState newState, boolean moved);
+
+    /**
+     * Registers a callback that only gets invoked when a block gets replaced by another block
+     * that disagrees on being in {@code tag}.
+     */
+    static void registerTagChange(TagKey<Block> tag, BlockReplacedCallback callback) {
+        EVENT.register((oldState, world, pos, newState, moved) -> {
+            // Tags apply to whole blocks, so property changes can be skipped without any tag lookup
+            if (oldState.getBlock() != newState.getBlock() && oldState.isIn(tag) != newState.isIn(tag)) {
+                callback.onBlockPlaced(oldState, world, pos, newState, moved);
+            }
+        });
+    }
+
+    /**
+     * Registers a callback that only gets invoked for blocks replaced in chunks accepted by {@code filter}.
+     */
+    static void registerInChunks(ChunkFilter filter, BlockReplacedCallback callback) {
+        EVENT.register((oldState, world, pos, newState, moved) -> {
+            if (filter.contains(world, pos.getX() >> 4, pos.getZ() >> 4)) {
+                callback.onBlockPlaced(oldState, world, pos, newState, moved);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    interface ChunkFilter {
+        /**
+         * Called for every block change, implementations should be as cheap as possible.
+         */
+        boolean contains(World world, int chunkX, int chunkZ);
+    }
 }
@@ -0,0 +1,38 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; If not, see <https://www.gnu.org/licenses>.
+ */
+package ladysnake.requiem.api.v1.event.minecraft;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.util.registry.Registry;
+
+/**
+ * Fired on both sides every time a registry's tags get (re)populated, either from data packs or from the server.
+ * Listeners should check the registry first, as this fires for every registry with tags.
+ */
+@FunctionalInterface
+public interface RegistryTagsPopulatedCallback {
+    void onTagsPopulated(Registry<?> registry);
+
+    Event<RegistryTagsPopulatedCallback> EVENT = EventFactory.createArrayBacked(RegistryTagsPopulatedCallback.class,
+            (listeners) -> (Registry<?> registry) -> {
+                for (RegistryTagsPopulatedCallback handler : listeners) {
+                    handler.onTagsPopulated(registry);
+                }
+            });
+}
@@ -22,6 +22,7 @@ import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.entity.Entity;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.dynamic.DynamicSerializableUuid;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.World;
@@ -51,6 +52,13 @@ public record EntityPointer(UUID uuid, RegistryKey<World> world, Vec3d pos) {
         this(entity.getUuid(), entity.world.getRegistryKey(), entity.getPos());
     }
 
+    /**
+     * @return the {@link BlockPos} containing {@linkplain #pos() the entity's last known position}
+     */
+    public BlockPos blockPos() {
+        return new BlockPos(this.pos());
+    }
+
     /**
      * Attempts to find the entity this pointer is referencing using the given {@link MinecraftServer}.
      *
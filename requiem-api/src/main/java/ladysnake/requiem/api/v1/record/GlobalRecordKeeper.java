@@ -22,12 +22,14 @@ import dev.onyxstudios.cca.api.v3.component.ComponentRegistry;
 import dev.onyxstudios.cca.api.v3.component.tick.CommonTickingComponent;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.World;
 
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * A {@link GlobalRecordKeeper} stores recorded data for access from anywhere
@@ -59,6 +61,44 @@ public interface GlobalRecordKeeper extends CommonTickingComponent {
 
     Collection<GlobalRecord> getRecords();
 
+    /**
+     * Returns every valid record holding data of the given type.
+     *
+     * <p>This query is backed by an index, and does not scan unrelated records.
+     *
+     * @param type the type of data that returned records must hold
+     * @return a stream of records holding data of type {@code type}
+     * @since 2.0.0
+     */
+    Stream<GlobalRecord> getRecords(RecordType<?> type);
+
+    /**
+     * Returns every valid record holding data of the given type that {@linkplain RecordType#getReferencedWorld(Object) references}
+     * the given world.
+     *
+     * @param type  the type of data that returned records must hold
+     * @param world the world referenced by the data
+     * @return a stream of records holding data of type {@code type} in {@code world}
+     * @since 2.0.0
+     */
+    Stream<GlobalRecord> getRecords(RecordType<?> type, RegistryKey<World> world);
+
+    /**
+     * Returns every valid record holding data of the given {@linkplain RecordType#isLocated() located type}
+     * which referenced position is within {@code radius} blocks of {@code pos}.
+     *
+     * <p>This query is backed by a chunk index, and only looks at records in chunks overlapping the search area.
+     *
+     * @param type   the located type of data that returned records must hold
+     * @param world  the world referenced by the data
+     * @param pos    the center of the search area
+     * @param radius the maximum distance between {@code pos} and the position referenced by the data
+     * @return a stream of records holding data of type {@code type} near {@code pos}
+     * @throws IllegalArgumentException if {@code type} is not located
+     * @since 2.0.0
+     */
+    Stream<GlobalRecord> getRecordsNear(RecordType<?> type, RegistryKey<World> world, BlockPos pos, int radius);
+
     @Override
     void tick();
 
@@ -17,9 +17,11 @@
  */
 package ladysnake.requiem.api.v1.record;
 
+import com.google.common.base.Preconditions;
 import com.mojang.serialization.Codec;
 import net.fabricmc.fabric.api.event.registry.FabricRegistryBuilder;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.util.registry.SimpleRegistry;
@@ -43,12 +45,14 @@ public final class RecordType<T> {
     private final Identifier id;
     private final Codec<T> codec;
     private final Function<T, Optional<RegistryKey<World>>> worldGetter;
+    private final @Nullable Function<T, BlockPos> positionGetter;
     private final boolean required;
 
-    private RecordType(Identifier id, Codec<T> codec, Function<T, Optional<RegistryKey<World>>> worldGetter, boolean required) {
+    private RecordType(Identifier id, Codec<T> codec, Function<T, Optional<RegistryKey<World>>> worldGetter, @Nullable Function<T, BlockPos> positionGetter, boolean required) {
         this.id = id;
         this.codec = codec;
         this.worldGetter = worldGetter;
+        this.positionGetter = positionGetter;
         this.required = required;
     }
 
@@ -72,6 +76,23 @@ public final class RecordType<T> {
         return this.worldGetter.apply(value);
     }
 
+    /**
+     * @return {@code true} if data of this type references a position in its {@linkplain #getReferencedWorld(Object) referenced world}
+     * @since 2.0.0
+     */
+    public boolean isLocated() {
+        return this.positionGetter != null;
+    }
+
+    /**
+     * @param value a datum of this type
+     * @return the position referenced by {@code value}, or {@code null} if this type is not {@linkplain #isLocated() located}
+     * @since 2.0.0
+     */
+    public @Nullable BlockPos getReferencedPosition(T value) {
+        return this.positionGetter == null ? null : this.positionGetter.apply(value);
+    }
+
     public Identifier getId() {
         return this.id;
     }
@@ -104,7 +125,26 @@ public final class RecordType<T> {
      * @return a newly registered {@link RecordType} for encoding instances of {@code T}
      */
     public static <T> RecordType<T> register(Identifier id, Codec<T> codec, @Nullable Function<T, RegistryKey<World>> worldGetter, boolean required) {
-        return Registry.register(REGISTRY, id, new RecordType<>(id, codec, worldGetter == null ? t -> Optional.empty() : t -> Optional.of(worldGetter.apply(t)), required));
+        return register(id, codec, worldGetter, null, required);
+    }
+
+    /**
+     * Creates and registers a new {@link RecordType} with the given id.
+     *
+     * <p>Records holding data of a located type can be efficiently queried by position
+     * through {@link GlobalRecordKeeper#getRecordsNear(RecordType, RegistryKey, BlockPos, int)}.
+     *
+     * @param id             the unique identifier used to register the resulting record type
+     * @param codec          the {@link Codec} to use to (de)serialize associated data
+     * @param worldGetter    a getter for referenced worlds which absence could invalidate the record
+     * @param positionGetter a getter for the position referenced in the world returned by {@code worldGetter}
+     * @param required       whether removing data of this type from a record invalidates it
+     * @param <T>            type for which the {@code RecordType} is being registered
+     * @return a newly registered {@link RecordType} for encoding instances of {@code T}
+     */
+    public static <T> RecordType<T> register(Identifier id, Codec<T> codec, @Nullable Function<T, RegistryKey<World>> worldGetter, @Nullable Function<T, BlockPos> positionGetter, boolean required) {
+        Preconditions.checkArgument(positionGetter == null || worldGetter != null, "Located record types must reference a world");
+        return Registry.register(REGISTRY, id, new RecordType<>(id, codec, worldGetter == null ? t -> Optional.empty() : t -> Optional.of(worldGetter.apply(t)), positionGetter, required));
     }
 
 }
@@ -55,6 +55,8 @@ public final class RequiemCoreNetworking {
     public static final Identifier HUGGING_WALL = RequiemCore.id("hugging_wall");
     public static final Identifier CONSUME_RESURRECTION_ITEM = RequiemCore.id("consume_resurrection_item");
 
+    private static int hugWallSequence;
+
     public static void sendAbilityUseMessage(AbilityType type, Entity entity) {
         PacketByteBuf buf = PacketByteBufs.create();
         buf.writeEnumConstant(type);
@@ -62,9 +64,14 @@ public final class RequiemCoreNetworking {
         ClientPlayNetworking.send(USE_DIRECT_ABILITY, buf);
     }
 
+    /**
+     * Reports a change in the client player's wall hugging state. Messages are numbered for the whole client session,
+     * so that the server can discard duplicates even after the client player entity gets replaced.
+     */
     public static void sendHugWallMessage(boolean hugging) {
         PacketByteBuf buf = new PacketByteBuf(buffer());
         buf.writeBoolean(hugging);
+        buf.writeVarInt(++hugWallSequence);
         ClientPlayNetworking.send(HUGGING_WALL, buf);
     }
 
@@ -34,6 +34,7 @@
  */
 package ladysnake.requiem.core.ability;
 
+import com.google.common.base.Preconditions;
 import ladysnake.requiem.api.v1.entity.ability.AbilityType;
 import ladysnake.requiem.api.v1.entity.ability.DirectAbility;
 import ladysnake.requiem.api.v1.entity.ability.IndirectAbility;
@@ -46,12 +47,16 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.List;
 
 public class ImmutableMobAbilityController<T extends LivingEntity> implements MobAbilityController {
-    private List<MobAbility<? super T>> abilities;
+    private @Nullable T owner;
+    private @Nullable MobAbilityConfig<? super T> config;
+    /**Abilities get instantiated on first use, as most mobs never get possessed*/
+    private @Nullable List<MobAbility<? super T>> abilities;
     private IndirectAbility<? super T> indirectAttack;
     private IndirectAbility<? super T> indirectInteraction;
     private DirectAbility<? super T, ?> directAttack;
@@ -71,11 +76,21 @@ public class ImmutableMobAbilityController<T extends LivingEntity> implements Mo
     }
 
     public void init(T owner, MobAbilityConfig<? super T> config) {
-        this.directAttack = config.getDirectAbility(owner, AbilityType.ATTACK);
-        this.directInteraction = config.getDirectAbility(owner, AbilityType.INTERACT);
-        this.indirectAttack = config.getIndirectAbility(owner, AbilityType.ATTACK);
-        this.indirectInteraction = config.getIndirectAbility(owner, AbilityType.INTERACT);
-        this.abilities = Arrays.asList(this.directAttack, this.directInteraction, this.indirectAttack, this.indirectInteraction);
+        this.owner = owner;
+        this.config = config;
+        this.abilities = null;
+    }
+
+    private List<MobAbility<? super T>> getAbilities() {
+        if (this.abilities == null) {
+            Preconditions.checkState(this.owner != null && this.config != null, "Ability controller used before initialization");
+            this.directAttack = this.config.getDirectAbility(this.owner, AbilityType.ATTACK);
+            this.directInteraction = this.config.getDirectAbility(this.owner, AbilityType.INTERACT);
+            this.indirectAttack = this.config.getIndirectAbility(this.owner, AbilityType.ATTACK);
+            this.indirectInteraction = this.config.getIndirectAbility(this.owner, AbilityType.INTERACT);
+            this.abilities = Arrays.asList(this.directAttack, this.directInteraction, this.indirectAttack, this.indirectInteraction);
+        }
+        return this.abilities;
     }
 
     @Override
@@ -105,20 +120,23 @@ public class ImmutableMobAbilityController<T extends LivingEntity> implements Mo
 
     @Override
     public void writeSyncPacket(PacketByteBuf buf, ServerPlayerEntity recipient) {
-        for (MobAbility<? super T> ability : this.abilities) {
+        for (MobAbility<? super T> ability : this.getAbilities()) {
             ability.writeToPacket(buf);
         }
     }
 
     @Override
     public void applySyncPacket(PacketByteBuf buf) {
-        for (MobAbility<? super T> ability : this.abilities) {
+        for (MobAbility<? super T> ability : this.getAbilities()) {
             ability.readFromPacket(buf);
         }
     }
 
     @Override
     public void tick() {
+        // Abilities that never got used have nothing to update
+        if (this.abilities == null) return;
+
         for (MobAbility<? super T> ability : this.abilities) {
             ability.update();
         }
@@ -146,6 +164,7 @@ public class ImmutableMobAbilityController<T extends LivingEntity> implements Mo
     }
 
     private DirectAbility<? super T, ?> getDirect(AbilityType type) {
+        this.getAbilities();
         return switch (type) {
             case ATTACK -> this.directAttack;
             case INTERACT -> this.directInteraction;
@@ -153,6 +172,7 @@ public class ImmutableMobAbilityController<T extends LivingEntity> implements Mo
     }
 
     private IndirectAbility<? super T> getIndirect(AbilityType type) {
+        this.getAbilities();
         return switch (type) {
             case ATTACK -> this.indirectAttack;
             case INTERACT -> this.indirectInteraction;
@@ -43,6 +43,7 @@ import ladysnake.requiem.api.v1.entity.ability.MobAbilityConfig;
 import ladysnake.requiem.api.v1.entity.ability.MobAbilityController;
 import ladysnake.requiem.api.v1.internal.DummyMobAbilityController;
 import ladysnake.requiem.core.RequiemCoreNetworking;
+import ladysnake.requiem.core.util.DeferredComponentSync;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.entity.player.PlayerEntity;
@@ -127,7 +128,7 @@ public class PlayerAbilityController implements MobAbilityController, AutoSynced
 
         this.targets.clear();
         this.sortAbilities();
-        KEY.sync(this.player);
+        DeferredComponentSync.markDirty(KEY, this.player);
     }
 
     private void sortAbilities() {
@@ -38,6 +38,7 @@ import dev.onyxstudios.cca.api.v3.component.ComponentKey;
 import dev.onyxstudios.cca.api.v3.component.ComponentRegistry;
 import dev.onyxstudios.cca.api.v3.component.sync.AutoSyncedComponent;
 import it.unimi.dsi.fastutil.objects.Object2BooleanMap;
+import it.unimi.dsi.fastutil.objects.Object2BooleanMaps;
 import it.unimi.dsi.fastutil.objects.Object2BooleanOpenHashMap;
 import ladysnake.requiem.core.RequiemCore;
 import ladysnake.requiem.core.entity.ai.DisableableAiController;
@@ -67,7 +68,8 @@ public class EntityAiToggle implements AutoSyncedComponent {
     }
 
     private final LivingEntity owner;
-    private final Object2BooleanMap<Identifier> aiInhibitors = new Object2BooleanOpenHashMap<>();
+    /**Shared empty map until an inhibitor gets added, most entities never get inhibited*/
+    private Object2BooleanMap<Identifier> aiInhibitors = Object2BooleanMaps.emptyMap();
     private boolean disabled;
 
     public EntityAiToggle(LivingEntity owner) {
@@ -84,9 +86,10 @@ public class EntityAiToggle implements AutoSyncedComponent {
     public void toggleAi(Identifier inhibitorId, boolean inhibit, boolean persistent) {
         boolean wasDisabled = this.isAiDisabled();
         if (inhibit) {
-            this.aiInhibitors.put(inhibitorId, persistent);
-        } else {
+            this.getMutableInhibitors().put(inhibitorId, persistent);
+        } else if (!this.aiInhibitors.isEmpty()) {
             this.aiInhibitors.removeBoolean(inhibitorId);
+            if (this.aiInhibitors.isEmpty()) this.aiInhibitors = Object2BooleanMaps.emptyMap();
         }
         boolean nowDisabled = !this.aiInhibitors.isEmpty();
 
@@ -95,6 +98,13 @@ public class EntityAiToggle implements AutoSyncedComponent {
         }
     }
 
+    private Object2BooleanMap<Identifier> getMutableInhibitors() {
+        if (this.aiInhibitors == Object2BooleanMaps.<Identifier>emptyMap()) {
+            this.aiInhibitors = new Object2BooleanOpenHashMap<>(2);
+        }
+        return this.aiInhibitors;
+    }
+
     private void refresh(boolean nowDisabled) {
         this.disabled = nowDisabled;
         ((DisableableAiController) this.owner.getBrain()).requiem$setDisabled(nowDisabled);
@@ -127,7 +137,7 @@ public class EntityAiToggle implements AutoSyncedComponent {
             .map(NbtElement::asString)
             .map(Identifier::tryParse)
             .filter(Objects::nonNull)
-            .forEach(id -> this.aiInhibitors.put(id, true));
+            .forEach(id -> this.getMutableInhibitors().put(id, true));
         this.refresh(!this.aiInhibitors.isEmpty());
     }
 
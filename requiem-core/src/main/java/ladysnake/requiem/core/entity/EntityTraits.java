@@ -0,0 +1,132 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.entity;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.entity.EntityType;
+import net.minecraft.tag.TagKey;
+import net.minecraft.util.registry.Registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The set of Requiem entity tags an {@link EntityType} is in, stored as a bitset.
+ *
+ * <p>Traits are snapshotted every time entity type tags get (re)loaded, either from data packs or from the server.
+ * Checking a registered trait is then a single bit test, instead of a walk through the type's tags.
+ * Tags that were not {@linkplain #register(TagKey) registered} as traits fall back to a regular tag lookup.
+ */
+public final class EntityTraits {
+    private static final int MAX_TRAITS = Long.SIZE;
+    private static final Reference2IntMap<TagKey<EntityType<?>>> traitIndices = new Reference2IntOpenHashMap<>();
+    private static final List<TagKey<EntityType<?>>> traits = new ArrayList<>();
+    private static volatile Reference2ObjectMap<EntityType<?>, EntityTraits> byType = Reference2ObjectMaps.emptyMap();
+
+    static {
+        traitIndices.defaultReturnValue(-1);
+    }
+
+    /**
+     * Registers an entity tag as a trait, making checks for it as cheap as possible.
+     *
+     * <p>This method must be called during initialization, before tags get loaded.
+     *
+     * @return {@code tag}
+     */
+    public static synchronized TagKey<EntityType<?>> register(TagKey<EntityType<?>> tag) {
+        if (!traitIndices.containsKey(tag)) {
+            Preconditions.checkState(traits.size() < MAX_TRAITS, "Too many entity traits registered");
+            traitIndices.put(tag, traits.size());
+            traits.add(tag);
+        }
+        return tag;
+    }
+
+    public static EntityTraits of(EntityType<?> type) {
+        EntityTraits traits = byType.get(type);
+        // Tags have not been loaded yet
+        return traits != null ? traits : new EntityTraits(type, 0L, 0);
+    }
+
+    /**
+     * Rebuilds the trait table from the current state of entity type tags.
+     *
+     * <p>The new table replaces the old one in a single write, readers never see a partially built table.
+     */
+    public static synchronized void rebuild() {
+        // Only ever mutated before being published
+        Reference2ObjectMap<EntityType<?>, EntityTraits> table = new Reference2ObjectOpenHashMap<>(Registry.ENTITY_TYPE.size());
+        for (EntityType<?> type : Registry.ENTITY_TYPE) {
+            long bits = 0L;
+            for (int i = 0; i < traits.size(); i++) {
+                if (type.isIn(traits.get(i))) {
+                    bits |= 1L << i;
+                }
+            }
+            table.put(type, new EntityTraits(type, bits, traits.size()));
+        }
+        byType = table;
+    }
+
+    private final EntityType<?> type;
+    private final long bits;
+    /**Number of traits that were registered when this snapshot got built*/
+    private final int knownTraits;
+
+    private EntityTraits(EntityType<?> type, long bits, int knownTraits) {
+        this.type = type;
+        this.bits = bits;
+        this.knownTraits = knownTraits;
+    }
+
+    public boolean has(TagKey<EntityType<?>> trait) {
+        int index = traitIndices.getInt(trait);
+        if (index < 0 || index >= this.knownTraits) {
+            return this.type.isIn(trait);
+        }
+        return (this.bits & (1L << index)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityTraits[" + EntityType.getId(this.type) + "=" + Long.toBinaryString(this.bits) + "]";
+    }
+}
@@ -38,6 +38,7 @@ import com.google.common.base.Preconditions;
 import ladysnake.requiem.api.v1.entity.ability.MobAbility;
 import ladysnake.requiem.api.v1.entity.ability.MobAbilityController;
 import ladysnake.requiem.api.v1.possession.Possessable;
+import ladysnake.requiem.core.util.DeferredComponentSync;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.network.PacketByteBuf;
@@ -60,9 +61,13 @@ public abstract class AbilityBase<E extends LivingEntity> implements MobAbility<
         Preconditions.checkArgument(cooldown >= 0);
 
         if (this.cooldown != cooldown) {
+            // Clients count down on their own, so only starts, ends, and unexpected jumps need syncing
+            boolean countdown = cooldown == this.cooldown - 1 && cooldown > 0;
             this.cooldown = cooldown;
 
-            this.sync();
+            if (!countdown) {
+                this.sync();
+            }
 
             if (cooldown == 0) {
                 this.onCooldownEnd();
@@ -74,11 +79,11 @@ public abstract class AbilityBase<E extends LivingEntity> implements MobAbility<
         E owner = this.owner;
 
         if (owner instanceof PlayerEntity) {
-            MobAbilityController.KEY.sync(owner);
+            DeferredComponentSync.markDirty(MobAbilityController.KEY, owner);
         } else {
             PlayerEntity possessor = ((Possessable) owner).getPossessor();
             if (possessor != null) {
-                MobAbilityController.KEY.sync(possessor);
+                DeferredComponentSync.markDirty(MobAbilityController.KEY, possessor);
             }
         }
     }
@@ -101,8 +106,13 @@ public abstract class AbilityBase<E extends LivingEntity> implements MobAbility<
     public void update() {
         int cooldown = this.getCooldown();
 
-        if (cooldown > 0 && !this.owner.world.isClient) {
-            this.setCooldown(cooldown - 1);
+        if (!this.owner.world.isClient) {
+            if (cooldown > 0) {
+                this.setCooldown(cooldown - 1);
+            }
+        } else if (cooldown > 1) {
+            // Predict the countdown, but leave the end of the cooldown to the server's sync
+            this.cooldown = cooldown - 1;
         }
     }
 
@@ -36,4 +36,6 @@ package ladysnake.requiem.core.entity.attribute;
 
 public interface NonDeterministicAttribute {
     void addFinalModifier(NonDeterministicModifier modifier);
+
+    void removeFinalModifier(NonDeterministicModifier modifier);
 }
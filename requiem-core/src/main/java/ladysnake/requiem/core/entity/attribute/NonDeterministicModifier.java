@@ -34,14 +34,20 @@
  */
 package ladysnake.requiem.core.entity.attribute;
 
-import java.util.OptionalDouble;
-import java.util.function.DoubleFunction;
-
-public interface NonDeterministicModifier extends DoubleFunction<OptionalDouble> {
-    @Override
-    OptionalDouble apply(double value);
+/**
+ * A modifier applied on top of an attribute's computed value every time it is read.
+ *
+ * <p>Modifiers are called on hot paths, and should not allocate.
+ */
+public interface NonDeterministicModifier {
+    /**
+     * @return {@code false} if this modifier would currently leave the value unchanged, letting callers skip {@link #apply(double)}
+     */
+    boolean isActive();
 
-    default NonDeterministicModifier andThen(NonDeterministicModifier after) {
-        return value -> after.apply(this.apply(value).orElse(value));
-    }
+    /**
+     * @param value the value computed by the attribute instance, or by the previous modifier
+     * @return the modified value
+     */
+    double apply(double value);
 }
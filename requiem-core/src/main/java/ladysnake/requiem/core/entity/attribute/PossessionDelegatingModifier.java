@@ -41,7 +41,6 @@ import net.minecraft.entity.attribute.EntityAttributeInstance;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.registry.Registry;
 
-import java.util.OptionalDouble;
 import java.util.function.Supplier;
 
 public class PossessionDelegatingModifier implements NonDeterministicModifier {
@@ -68,20 +67,25 @@ public class PossessionDelegatingModifier implements NonDeterministicModifier {
         }
     }
 
+    @Override
+    public boolean isActive() {
+        return this.handler.get() != null;
+    }
+
     /**
-     * @return the attribute instance to which calls should be delegated
+     * @return the value of the possessed entity's attribute instance, to which calls should be delegated
      */
     @Override
-    public OptionalDouble apply(double value) {
+    public double apply(double value) {
         LivingEntity possessed = handler.get();
 
         if (possessed != null) {
             EntityAttributeInstance ret = possessed.getAttributeInstance(this.attribute);
             // the attribute can be null if it is not registered in the possessed entity
             if (ret != null) {
-                return OptionalDouble.of(ret.getValue());
+                return ret.getValue();
             }
         }
-        return OptionalDouble.empty();
+        return value;
     }
 }
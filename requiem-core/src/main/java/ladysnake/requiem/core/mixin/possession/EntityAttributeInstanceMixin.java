@@ -37,28 +37,47 @@ package ladysnake.requiem.core.mixin.possession;
 import ladysnake.requiem.core.entity.attribute.NonDeterministicAttribute;
 import ladysnake.requiem.core.entity.attribute.NonDeterministicModifier;
 import net.minecraft.entity.attribute.EntityAttributeInstance;
-import org.jetbrains.annotations.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
+import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
-import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.asm.mixin.injection.Redirect;
 
 @Mixin(EntityAttributeInstance.class)
 public abstract class EntityAttributeInstanceMixin implements NonDeterministicAttribute {
     @Unique
-    private @Nullable NonDeterministicModifier finalModifier;
+    private static final NonDeterministicModifier[] NO_MODIFIERS = new NonDeterministicModifier[0];
+
+    @Shadow
+    private double value;
+
+    @Unique
+    private NonDeterministicModifier[] finalModifiers = NO_MODIFIERS;
 
     @Override
     public void addFinalModifier(NonDeterministicModifier modifier) {
-        if (this.finalModifier != null) finalModifier = finalModifier.andThen(modifier);
-        else this.finalModifier = modifier;
+        this.finalModifiers = ArrayUtils.add(this.finalModifiers, modifier);
+    }
+
+    @Override
+    public void removeFinalModifier(NonDeterministicModifier modifier) {
+        NonDeterministicModifier[] modifiers = ArrayUtils.removeElement(this.finalModifiers, modifier);
+        this.finalModifiers = modifiers.length == 0 ? NO_MODIFIERS : modifiers;
     }
 
-    @Inject(method = "getValue", at = @At("RETURN"), cancellable = true)
-    private void getValue(CallbackInfoReturnable<Double> cir) {
-        if (this.finalModifier != null) {
-            this.finalModifier.apply(cir.getReturnValueD()).ifPresent(cir::setReturnValue);
+    /**
+     * Applies final modifiers to the cached value as it gets returned, without boxing nor callback allocation
+     */
+    @Redirect(method = "getValue", at = @At(value = "FIELD", opcode = Opcodes.GETFIELD, target = "Lnet/minecraft/entity/attribute/EntityAttributeInstance;value:D", ordinal = 0))
+    private double applyFinalModifiers(EntityAttributeInstance self) {
+        double value = this.value;
+        for (NonDeterministicModifier modifier : this.finalModifiers) {
+            if (modifier.isActive()) {
+                value = modifier.apply(value);
+            }
         }
+        return value;
     }
 }
@@ -34,9 +34,9 @@
  */
 package ladysnake.requiem.core.mixin.possession;
 
-import ladysnake.requiem.api.v1.possession.PossessionComponent;
+import ladysnake.requiem.core.possession.PossessorLink;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
@@ -47,10 +47,15 @@ import java.util.function.Predicate;
 
 @Mixin(World.class)
 public abstract class WorldMixin {
+    /**
+     * Excludes possessors' hosts from the entities they can find.
+     *
+     * <p>This runs for every entity query, so entities that do not possess anything must get through with a single field read.
+     */
     @ModifyVariable(method = "getOtherEntities(Lnet/minecraft/entity/Entity;Lnet/minecraft/util/math/Box;Ljava/util/function/Predicate;)Ljava/util/List;", at = @At(value = "HEAD"), argsOnly = true)
     private @Nullable Predicate<Entity> ignorePossessed(@Nullable Predicate<Entity> predicate, @Nullable Entity ignored) {
         if (ignored != null) {
-            LivingEntity possessed = PossessionComponent.getHost(ignored);
+            MobEntity possessed = PossessorLink.getLinkedHost(ignored);
             if (possessed != null) {
                 Predicate<Entity> appendedPredicate = e -> e != possessed;
                 return predicate == null ? appendedPredicate : predicate.and(appendedPredicate);
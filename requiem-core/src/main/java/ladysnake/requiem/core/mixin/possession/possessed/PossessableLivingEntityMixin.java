@@ -39,6 +39,7 @@ import ladysnake.requiem.api.v1.possession.Possessable;
 import ladysnake.requiem.api.v1.possession.PossessionComponent;
 import ladysnake.requiem.core.RequiemCore;
 import ladysnake.requiem.core.entity.EntityAiToggle;
+import ladysnake.requiem.core.entity.EntityTraits;
 import ladysnake.requiem.core.entity.VariableMobilityEntity;
 import ladysnake.requiem.core.entity.attribute.CooldownStrengthModifier;
 import ladysnake.requiem.core.entity.attribute.NonDeterministicAttribute;
@@ -86,12 +87,10 @@ import static org.spongepowered.asm.mixin.injection.At.Shift.AFTER;
  */
 @Mixin(LivingEntity.class)
 public abstract class PossessableLivingEntityMixin extends Entity implements Possessable, VariableMobilityEntity {
-    @Unique
-    private final boolean requiem_immovable = this.getType().isIn(RequiemCoreTags.Entity.IMMOVABLE);
-    @Unique
-    private final boolean requiem_regularEater = this.getType().isIn(RequiemCoreTags.Entity.EATERS);
     @Nullable
     private UUID requiem$previousPossessorUuid;
+    @Unique
+    private @Nullable CooldownStrengthModifier requiem$strengthModifier;
 
     @Shadow
     public abstract EntityAttributeInstance getAttributeInstance(EntityAttribute entityAttribute_1);
@@ -182,17 +181,38 @@ public abstract class PossessableLivingEntityMixin extends Entity implements Pos
             speedAttribute.addTemporaryModifier(RequiemCore.INHERENT_MOB_SLOWNESS);
         }
 
+        this.updateStrengthModifier(possessor != null);
         this.onPossessorSet(possessor);
     }
 
+    /**
+     * Installs the attack cooldown modifier only while this entity is possessed, so that other entities
+     * read their attack damage without any overhead
+     */
+    @Unique
+    private void updateStrengthModifier(boolean possessed) {
+        EntityAttributeInstance attributeInstance = this.getAttributeInstance(EntityAttributes.GENERIC_ATTACK_DAMAGE);
+        // Entities may or may not register ATTACK_DAMAGE
+        //noinspection ConstantConditions
+        if (attributeInstance != null) {
+            if (possessed && this.requiem$strengthModifier == null) {
+                this.requiem$strengthModifier = new CooldownStrengthModifier((LivingEntity & Possessable) (Object) this);
+                ((NonDeterministicAttribute) attributeInstance).addFinalModifier(this.requiem$strengthModifier);
+            } else if (!possessed && this.requiem$strengthModifier != null) {
+                ((NonDeterministicAttribute) attributeInstance).removeFinalModifier(this.requiem$strengthModifier);
+                this.requiem$strengthModifier = null;
+            }
+        }
+    }
+
     @Override
     public boolean requiem_isImmovable() {
-        return requiem_immovable;
+        return EntityTraits.of(this.getType()).has(RequiemCoreTags.Entity.IMMOVABLE);
     }
 
     @Override
     public boolean isRegularEater() {
-        return requiem_regularEater;
+        return EntityTraits.of(this.getType()).has(RequiemCoreTags.Entity.EATERS);
     }
 
     /* * * * * * * * * * *
@@ -217,16 +237,6 @@ public abstract class PossessableLivingEntityMixin extends Entity implements Pos
         }
     }
 
-    @Inject(method = "<init>", at = @At("RETURN"))
-    private void initAttributes(CallbackInfo ci) {
-        EntityAttributeInstance attributeInstance = this.getAttributeInstance(EntityAttributes.GENERIC_ATTACK_DAMAGE);
-        // Entities may or may not register ATTACK_DAMAGE
-        //noinspection ConstantConditions
-        if (attributeInstance != null) {
-            ((NonDeterministicAttribute)attributeInstance).addFinalModifier(new CooldownStrengthModifier((LivingEntity & Possessable) (Object) this));
-        }
-    }
-
     @Inject(method = "tick", at = @At("RETURN"))
     private void tick(CallbackInfo ci) {
         PlayerEntity player = this.getPossessor();
@@ -250,7 +260,7 @@ public abstract class PossessableLivingEntityMixin extends Entity implements Pos
         if (player != null) {
             this.setRotation(player.getYaw(), player.getPitch());
             this.headYaw = this.bodyYaw = this.prevYaw = this.getYaw();
-            if (!this.requiem_immovable) {
+            if (!this.requiem_isImmovable()) {
                 this.setSwimming(player.isSwimming());
                 // Prevent this entity from taking fall damage unless triggered by the possessor
                 this.fallDistance = 0;
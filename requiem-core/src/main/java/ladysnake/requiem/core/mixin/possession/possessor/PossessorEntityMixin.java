@@ -34,12 +34,16 @@
  */
 package ladysnake.requiem.core.mixin.possession.possessor;
 
+import ladysnake.requiem.core.possession.PossessorLink;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.gen.Accessor;
 import org.spongepowered.asm.mixin.gen.Invoker;
 import org.spongepowered.asm.mixin.injection.At;
@@ -47,7 +51,19 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(Entity.class)
-public abstract class PossessorEntityMixin {
+public abstract class PossessorEntityMixin implements PossessorLink {
+    @Unique
+    private @Nullable MobEntity requiem$linkedHost;
+
+    @Override
+    public @Nullable MobEntity requiem$getLinkedHost() {
+        return this.requiem$linkedHost;
+    }
+
+    @Override
+    public void requiem$setLinkedHost(@Nullable MobEntity host) {
+        this.requiem$linkedHost = host;
+    }
 
     @Invoker("isSprinting")
     public abstract boolean requiem$isSprinting();
@@ -75,11 +75,19 @@ public final class MovementAltererManager implements SubDataManager<Map<EntityTy
     public static final Identifier LISTENER_ID = RequiemCore.id("movement_alterer");
 
     private final Map<EntityType<?>, SerializableMovementConfig> entityMovementConfigs = new HashMap<>();
+    /**Configs indexed by entity type raw id, with {@code null} entries for types using the default config*/
+    private MovementConfig[] configsByRawId = new MovementConfig[0];
 
     @Override
     public void apply(Map<EntityType<?>, SerializableMovementConfig> data) {
         entityMovementConfigs.clear();
         entityMovementConfigs.putAll(data);
+        MovementConfig[] configsByRawId = new MovementConfig[Registry.ENTITY_TYPE.size()];
+        for (Map.Entry<EntityType<?>, SerializableMovementConfig> entry : data.entrySet()) {
+            int rawId = Registry.ENTITY_TYPE.getRawId(entry.getKey());
+            if (rawId >= 0 && rawId < configsByRawId.length) configsByRawId[rawId] = entry.getValue();
+        }
+        this.configsByRawId = configsByRawId;
     }
 
     @Override
@@ -138,7 +146,10 @@ public final class MovementAltererManager implements SubDataManager<Map<EntityTy
 
     @Override
     public MovementConfig getEntityMovementConfig(EntityType<?> type) {
-        return this.entityMovementConfigs.getOrDefault(type, new SerializableMovementConfig());
+        int rawId = Registry.ENTITY_TYPE.getRawId(type);
+        MovementConfig[] configs = this.configsByRawId;
+        MovementConfig config = rawId >= 0 && rawId < configs.length ? configs[rawId] : null;
+        return config == null ? SerializableMovementConfig.DEFAULT : config;
     }
 
     @Override
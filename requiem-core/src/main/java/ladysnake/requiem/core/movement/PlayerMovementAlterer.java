@@ -69,11 +69,13 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.tag.FluidTags;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.profiler.Profiler;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.ToDoubleFunction;
 
 import static ladysnake.requiem.api.v1.entity.MovementConfig.MovementMode.*;
@@ -86,6 +88,7 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
     public static final UUID SPEED_MODIFIER_UUID = UUID.fromString("3708adba-b37f-413f-8b66-62e05330c7da");
     public static final UUID WATER_SPEED_MODIFIER_UUID = UUID.fromString("0e602dd1-2672-4179-852e-2a26d1579df4");
     public static final int TICKS_BEFORE_PHASING = 60;
+    public static final int MAX_HUG_WALL_UPDATES_PER_SECOND = 10;
 
     @Nullable
     private MovementConfig config;
@@ -97,6 +100,20 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
     private boolean underwaterJumpAscending;
     private double underwaterJumpStartY;
 
+    /**Body currently holding the water speed modifier, if any*/
+    private @Nullable LivingEntity waterModifiedBody;
+    private boolean wasTouchingWater;
+
+    /**Wall hugging state last sent to the server on the client, or last received from the client on the server*/
+    private volatile boolean reportedHuggingWall;
+    /**Wall hugging state currently applied on the server*/
+    private boolean huggingWall;
+    /**Highest message number received from the client, only accessed from the network thread*/
+    private int lastHugWallSequence;
+    /**Number of wall hugging state changes the server can still apply this second*/
+    private int hugWallUpdateBudget = MAX_HUG_WALL_UPDATES_PER_SECOND;
+    private final AtomicInteger receivedHugWallMessages = new AtomicInteger();
+
     public PlayerMovementAlterer(PlayerEntity player) {
         this.player = player;
     }
@@ -118,6 +135,7 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
             this.hugWall(false);
             this.underwaterJumpAscending = false;
             this.updateSpeedModifier(getCurrentBody(this.player), SPEED_MODIFIER_UUID, MovementConfig::getLandedSpeedModifier, true);
+            this.updateWaterSpeedModifier(true);
         }
     }
 
@@ -188,9 +206,9 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
                     // 10.0 is an arbitrary constant that corresponds to mostly blocked movement
                     if (movement.length() / adjusted.length() > 10.0 && this.player.getRotationVector().dotProduct(movement.normalize()) > 0.5) {
                         this.ticksAgainstWall++;
-                        RequiemCoreNetworking.sendHugWallMessage(true);
+                        this.reportHuggingWall(true);
                     } else if (this.ticksAgainstWall > 0) {
-                        RequiemCoreNetworking.sendHugWallMessage(false);
+                        this.reportHuggingWall(false);
                     }
                 } else if (this.noClipping && this.player.getRandom().nextFloat() > 0.8f) {
                     this.playPhaseEffects();
@@ -206,15 +224,26 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
         if (this.ticksAgainstWall < 0) {
             this.ticksAgainstWall++;
         } else if (this.noClipping) {
-            this.noClipping = false;    // disable to check whether there really are blocks
+            this.setNoClipping(false);    // disable to check whether there really are blocks
             if (this.player.world.isSpaceEmpty(this.player)) {
-                RequiemCoreNetworking.sendHugWallMessage(false);
+                this.reportHuggingWall(false);
             }
-            this.noClipping = true;
+            this.setNoClipping(true);
         }
         this.tick();
     }
 
+    /**
+     * Sends the client's wall hugging state to the server, if it changed since the last report
+     */
+    @CheckEnv(Env.CLIENT)
+    private void reportHuggingWall(boolean hugging) {
+        if (hugging != this.reportedHuggingWall) {
+            this.reportedHuggingWall = hugging;
+            RequiemCoreNetworking.sendHugWallMessage(hugging);
+        }
+    }
+
     @NotNull
     protected static Vec3d getIntendedMovement(PlayerEntity player) {
         if (player instanceof ClientPlayerEntity) {
@@ -227,15 +256,73 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
 
     @Override
     public void serverTick() {
-        this.updateSpeedModifier(
-            getCurrentBody(this.player),
-            WATER_SPEED_MODIFIER_UUID,
-            MovementConfig::getWaterSpeedModifier,
-            player.isTouchingWater()
-        );
+        this.updateWaterSpeedModifier(false);
+        this.updateWallHugging();
         this.tick();
     }
 
+    /**
+     * Receives a change in the client's wall hugging state. This method is called from the network thread,
+     * and only records the latest state for the next server tick.
+     *
+     * <p>The client only reports changes, so the latest state is always recorded.
+     * Spamming clients are instead limited in how often the server applies those changes.
+     *
+     * @param sequence the number of the message, used to discard duplicate or out of order messages
+     * @return {@code true} if the message was accepted, {@code false} if it was a duplicate or arrived out of order
+     */
+    public boolean receiveHugWallMessage(boolean hugging, int sequence) {
+        this.receivedHugWallMessages.incrementAndGet();
+        if (sequence <= this.lastHugWallSequence) {
+            return false;
+        }
+        this.lastHugWallSequence = sequence;
+        this.reportedHuggingWall = hugging;
+        return true;
+    }
+
+    private void updateWallHugging() {
+        Profiler profiler = this.player.world.getProfiler();
+        for (int i = this.receivedHugWallMessages.getAndSet(0); i > 0; i--) {
+            profiler.visit("requiem:hug_wall_message");
+        }
+        if (this.player.age % 20 == 0) {
+            this.hugWallUpdateBudget = MAX_HUG_WALL_UPDATES_PER_SECOND;
+        }
+
+        boolean hugging = this.reportedHuggingWall && this.config != null && this.config.canPhaseThroughWalls();
+        if (hugging != this.huggingWall) {
+            // Out of budget, the latest reported state will get applied once the budget refreshes
+            if (this.hugWallUpdateBudget <= 0) hugging = this.huggingWall;
+            else this.hugWallUpdateBudget--;
+        }
+        if (hugging) {
+            // Phasing souls stop reporting walls, so this would only keep sending particle updates
+            if (!this.noClipping) this.hugWall(true);
+        } else if (this.huggingWall) {
+            this.hugWall(false);
+        }
+        this.huggingWall = hugging;
+    }
+
+    /**
+     * Updates the water speed modifier when the player enters or exits water, or when their body changes.
+     *
+     * @param force {@code true} to update the modifier even without any of the above happening, e.g. after a config change
+     */
+    private void updateWaterSpeedModifier(boolean force) {
+        LivingEntity body = getCurrentBody(this.player);
+        boolean touchingWater = this.player.isTouchingWater();
+        if (force || body != this.waterModifiedBody || touchingWater != this.wasTouchingWater) {
+            if (this.waterModifiedBody != null && this.waterModifiedBody != body) {
+                this.updateSpeedModifier(this.waterModifiedBody, WATER_SPEED_MODIFIER_UUID, MovementConfig::getWaterSpeedModifier, false);
+            }
+            this.updateSpeedModifier(body, WATER_SPEED_MODIFIER_UUID, MovementConfig::getWaterSpeedModifier, touchingWater);
+            this.waterModifiedBody = body;
+            this.wasTouchingWater = touchingWater;
+        }
+    }
+
     @Override
     public void tick() {
         if (this.config == null) {
@@ -287,7 +374,7 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
             this.ticksAgainstWall++;
 
             if (this.ticksAgainstWall > TICKS_BEFORE_PHASING && !this.noClipping) {
-                this.noClipping = true;
+                this.setNoClipping(true);
                 this.ticksAgainstWall = 0;
                 KEY.sync(this.player, (buf, player) -> writeToPacket(buf, SYNC_NO_CLIP), player -> shouldSyncWith(player, SYNC_NO_CLIP));
             } else if (this.ticksAgainstWall % 10 == 0) {
@@ -295,7 +382,10 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
             }
         } else {
             this.ticksAgainstWall = 0;
-            this.noClipping = false;
+            this.setNoClipping(false);
+            // The client will report again if it is still hugging a wall
+            this.reportedHuggingWall = false;
+            this.huggingWall = false;
             KEY.sync(this.player, (buf, player) -> writeToPacket(buf, SYNC_NO_CLIP), player -> shouldSyncWith(player, SYNC_NO_CLIP));
         }
     }
@@ -305,6 +395,11 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
         return this.noClipping;
     }
 
+    private void setNoClipping(boolean noClipping) {
+        this.noClipping = noClipping;
+        ((NoClipFlag) this.player).requiem$setNoClipping(noClipping);
+    }
+
     @Override
     public boolean shouldSyncWith(ServerPlayerEntity player) {
         return this.shouldSyncWith(player, 0);
@@ -336,8 +431,10 @@ public abstract class PlayerMovementAlterer implements MovementAlterer {
     public void applySyncPacket(PacketByteBuf buf) {
         byte syncOp = buf.readByte();
         if (syncOp == SYNC_NO_CLIP) {
-            this.noClipping = buf.readBoolean();
+            this.setNoClipping(buf.readBoolean());
             this.ticksAgainstWall = this.noClipping ? -5 : 0;
+            // The server stopped considering us against a wall, report it again if we still are
+            if (!this.noClipping) this.reportedHuggingWall = false;
         } else if (syncOp == SYNC_PHASING_PARTICLES) {
             this.playPhaseEffects();
         }
@@ -48,6 +48,8 @@ import org.apiguardian.api.API;
  */
 public class SerializableMovementConfig implements MovementConfig {
     public static final SerializableMovementConfig SOUL = new SerializableMovementConfig(MovementMode.ENABLED, SwimMode.ENABLED, WalkMode.NORMAL, TriState.FALSE, TriState.FALSE, true, 0, 1F, 1F, 1F, 0.1F);
+    /**Config used by entity types without a specific movement config, shared and therefore never modified*/
+    public static final SerializableMovementConfig DEFAULT = new SerializableMovementConfig();
 
     private MovementMode flightMode;
     private SwimMode swimMode;
@@ -49,6 +49,7 @@ import ladysnake.requiem.api.v1.remnant.RemnantComponent;
 import ladysnake.requiem.api.v1.remnant.SoulbindingRegistry;
 import ladysnake.requiem.core.RequiemCore;
 import ladysnake.requiem.core.RequiemCoreNetworking;
+import ladysnake.requiem.core.entity.EntityTraits;
 import ladysnake.requiem.core.mixin.access.LivingEntityAccessor;
 import ladysnake.requiem.core.movement.SerializableMovementConfig;
 import ladysnake.requiem.core.tag.RequiemCoreTags;
@@ -118,10 +119,11 @@ public final class PossessionComponentImpl implements PossessionComponent {
         possessable.setPossessor(null);
         // Transfer inventory and mount
         if (!player.world.isClient) {
-            if (host.getType().isIn(RequiemCoreTags.Entity.INVENTORY_CARRIERS)) {
+            EntityTraits traits = EntityTraits.of(host.getType());
+            if (traits.has(RequiemCoreTags.Entity.INVENTORY_CARRIERS)) {
                 PossessedData.KEY.get(host).moveItems(player.getInventory(), false);
             }
-            if (host.getType().isIn(RequiemCoreTags.Entity.ITEM_USERS)) {
+            if (traits.has(RequiemCoreTags.Entity.ITEM_USERS)) {
                 InventoryHelper.transferEquipment(host, player);
             }
             for (StatusEffectInstance effect : player.getStatusEffects()) {
@@ -137,7 +139,7 @@ public final class PossessionComponentImpl implements PossessionComponent {
                 ((MobEntity) possessable).stopRiding();
                 player.startRiding(ridden);
             }
-            if (host.getType().isIn(RequiemCoreTags.Entity.EATERS)) {
+            if (traits.has(RequiemCoreTags.Entity.EATERS)) {
                 player.getHungerManager().readNbt(PossessedData.KEY.get(host).getHungerData());
             }
 
@@ -145,6 +147,7 @@ public final class PossessionComponentImpl implements PossessionComponent {
         }
         // Actually set the possessed entity
         this.possessed = host;
+        ((PossessorLink) this.player).requiem$setLinkedHost(host);
         possessable.setPossessor(this.player);
         PossessionComponent.KEY.sync(this.player);
         // Update some attributes
@@ -191,7 +194,7 @@ public final class PossessionComponentImpl implements PossessionComponent {
                     dropEquipment(host, serverPlayer);
                 }
 
-                if (host.getType().isIn(RequiemCoreTags.Entity.EATERS)) {
+                if (EntityTraits.of(host.getType()).has(RequiemCoreTags.Entity.EATERS)) {
                     player.getHungerManager().writeNbt(PossessedData.KEY.get(host).getHungerData());
                 }
 
@@ -211,10 +214,11 @@ public final class PossessionComponentImpl implements PossessionComponent {
 
     public static void dropEquipment(LivingEntity possessed, ServerPlayerEntity player) {
         if (PossessionEvents.INVENTORY_TRANSFER_CHECK.invoker().shouldTransfer(player, possessed).get()) {
-            if (possessed.getType().isIn(RequiemCoreTags.Entity.ITEM_USERS)) {
+            EntityTraits traits = EntityTraits.of(possessed.getType());
+            if (traits.has(RequiemCoreTags.Entity.ITEM_USERS)) {
                 InventoryHelper.transferEquipment(player, possessed);
             }
-            if (possessed.getType().isIn(RequiemCoreTags.Entity.INVENTORY_CARRIERS)) {
+            if (traits.has(RequiemCoreTags.Entity.INVENTORY_CARRIERS)) {
                 PossessedData.KEY.get(possessed).moveItems(player.getInventory(), true);
             }
             ((LivingEntityAccessor) player).requiem$invokeDropInventory();
@@ -279,6 +283,7 @@ public final class PossessionComponentImpl implements PossessionComponent {
 
     private void resetState() {
         this.possessed = null;
+        ((PossessorLink) this.player).requiem$setLinkedHost(null);
         this.conversionTimer = 0;
         MovementAlterer.get(this.player).setConfig(RemnantComponent.get(this.player).isVagrant() ? SerializableMovementConfig.SOUL : null);
         this.player.calculateDimensions(); // update size
@@ -34,6 +34,8 @@
  */
 package ladysnake.requiem.core.record;
 
+import com.google.common.base.Preconditions;
+import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.DataResult;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -49,7 +51,11 @@ import net.minecraft.nbt.NbtList;
 import net.minecraft.nbt.NbtOps;
 import net.minecraft.scoreboard.Scoreboard;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.profiler.Profiler;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -57,12 +63,13 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public abstract class CommonRecordKeeper implements GlobalRecordKeeper {
     private final Map<UUID, GlobalRecord> anchorsByUuid = new HashMap<>();
     private final Int2ObjectMap<GlobalRecord> anchorsById = new Int2ObjectOpenHashMap<>();
+    private final Map<RecordType<?>, RecordTypeIndex<?>> indexes = new HashMap<>();
 
     protected final Scoreboard scoreboard;
     private int nextIdCandidate;
@@ -71,11 +78,61 @@ public abstract class CommonRecordKeeper implements GlobalRecordKeeper {
         this.scoreboard = scoreboard;
     }
 
-    protected void addRecord(GlobalRecord anchor) {
-        if (this.checkWorld(anchor)) {
+    /**
+     * @return {@code true} if the record got added, {@code false} if it references a missing world or duplicates an existing record
+     */
+    protected boolean addRecord(GlobalRecord anchor) {
+        if (!anchorsByUuid.containsKey(anchor.getUuid()) && this.checkWorld(anchor)) {
             anchorsByUuid.put(anchor.getUuid(), anchor);
             anchorsById.put(anchor.getId(), anchor);
+            anchor.types().toList().forEach(type -> this.index(anchor, type));
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Makes sure every persisted record has been loaded before the keeper's contents get accessed
+     */
+    protected void ensureLoaded() {
+        // NO-OP
+    }
+
+    /**
+     * Called whenever a record held by this keeper gets created, updated, or removed
+     */
+    protected void markDirty(GlobalRecord record) {
+        // NO-OP
+    }
+
+    private <T> void index(GlobalRecord record, RecordType<T> type) {
+        record.get(type).ifPresent(value -> this.getIndex(type).add(record, value));
+    }
+
+    private <T> void unindex(GlobalRecord record, RecordType<T> type) {
+        record.get(type).ifPresent(value -> this.getIndex(type).remove(record, value));
+    }
+
+    /**
+     * Called by records owned by this keeper whenever some of their data changes, to keep indexes up to date
+     */
+    <T> void onRecordUpdated(GlobalRecord record, RecordType<T> type, @Nullable T oldValue, @Nullable T newValue) {
+        // Records that have been removed (or never got added) should not be indexed
+        if (this.anchorsById.get(record.getId()) == record) {
+            this.getIndex(type).update(record, oldValue, newValue);
+            this.markDirty(record);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RecordTypeIndex<T> getIndex(RecordType<T> type) {
+        return (RecordTypeIndex<T>) this.indexes.computeIfAbsent(type, RecordTypeIndex::new);
+    }
+
+    private Stream<GlobalRecord> queryIndex(RecordType<?> type, Function<RecordTypeIndex<?>, Stream<GlobalRecord>> query) {
+        this.ensureLoaded();
+        RecordTypeIndex<?> index = this.indexes.get(type);
+        return index == null ? Stream.empty() : query.apply(index).filter(this::isValid);
     }
 
     protected boolean checkWorld(GlobalRecord anchor) {
@@ -92,13 +149,31 @@ public abstract class CommonRecordKeeper implements GlobalRecordKeeper {
 
     @Override
     public Collection<GlobalRecord> getRecords() {
+        this.ensureLoaded();
         return this.anchorsById.values();
     }
 
+    @Override
+    public Stream<GlobalRecord> getRecords(RecordType<?> type) {
+        return this.queryIndex(type, RecordTypeIndex::all);
+    }
+
+    @Override
+    public Stream<GlobalRecord> getRecords(RecordType<?> type, RegistryKey<World> world) {
+        return this.queryIndex(type, index -> index.inWorld(world));
+    }
+
+    @Override
+    public Stream<GlobalRecord> getRecordsNear(RecordType<?> type, RegistryKey<World> world, BlockPos pos, int radius) {
+        Preconditions.checkArgument(type.isLocated(), "%s does not reference positions", type);
+        return this.queryIndex(type, index -> index.near(world, pos, radius));
+    }
+
     @Override
     public void tick() {
         Profiler profiler = this.getProfiler();
         profiler.push("requiem:global_entities");
+        this.ensureLoaded();
 
         for (var it = this.anchorsById.values().iterator(); it.hasNext(); ) {
             GlobalRecord anchor = it.next();
@@ -106,6 +181,8 @@ public abstract class CommonRecordKeeper implements GlobalRecordKeeper {
                 anchor.update();
             } // no else, invalidation can happen in update
             if (!isValid(anchor)) {
+                anchor.types().toList().forEach(type -> this.unindex(anchor, type));
+                this.markDirty(anchor);
                 this.anchorsByUuid.remove(anchor.getUuid());
                 it.remove();
             }
@@ -122,18 +199,22 @@ public abstract class CommonRecordKeeper implements GlobalRecordKeeper {
 
     @Override
     public GlobalRecord createRecord() {
+        this.ensureLoaded();
         GlobalRecordImpl record = new GlobalRecordImpl(this, UUID.randomUUID(), this.nextId());
         this.addRecord(record);
+        this.markDirty(record);
         return record;
     }
 
     @Override
     public Optional<GlobalRecord> getRecord(int anchorId) {
+        this.ensureLoaded();
         return Optional.ofNullable(this.anchorsById.get(anchorId)).filter(this::isValid);
     }
 
     @Override
     public Optional<GlobalRecord> getRecord(UUID anchorUuid) {
+        this.ensureLoaded();
         return Optional.ofNullable(this.anchorsByUuid.get(anchorUuid)).filter(this::isValid);
     }
 
@@ -149,34 +230,46 @@ public abstract class CommonRecordKeeper implements GlobalRecordKeeper {
     }
 
     private DataResult<GlobalRecord> deserialize(NbtCompound anchorTag) {
+        return parseRecord(anchorTag).map(parsed -> this.restoreRecord(parsed.getFirst(), parsed.getSecond()));
+    }
+
+    /**
+     * Creates a record from previously {@linkplain #parseRecord(NbtCompound) parsed} data, without adding it to this keeper
+     */
+    protected GlobalRecord restoreRecord(UUID uuid, Map<RecordType<?>, Object> data) {
+        return new GlobalRecordImpl(this, uuid, this.nextId(), data);
+    }
+
+    /**
+     * Parses the UUID and data of a serialized record. This method does not depend on the keeper's state,
+     * and can safely be called from any thread.
+     */
+    protected static DataResult<Pair<UUID, Map<RecordType<?>, Object>>> parseRecord(NbtCompound anchorTag) {
         return DataResult.unbox(DataResult.instance().apply2(
-            (uuid, data) -> new GlobalRecordImpl(this, uuid, this.nextId(), data),
+            Pair::of,
             DataResults.tryGet(() -> anchorTag.getUuid(GlobalRecordImpl.ANCHOR_UUID_NBT)),
-            this.deserializeRawData(anchorTag.getCompound("data"))
+            deserializeRawData(anchorTag.getCompound("data"))
         ));
     }
 
-    private DataResult<Map<RecordType<?>, Object>> deserializeRawData(NbtCompound nbtData) {
-        return nbtData.getKeys().stream()
-            // Step 1: equivalent of nbtData.entrySet() (sadly such a method doesn't exist)
-            .map(key -> Map.entry(key, Objects.requireNonNull(nbtData.get(key))))
-            // Step 2: DataResult go brr
-            .map(entry -> this.tryParseRecordType(entry.getKey()).flatMap(type -> deserializeRawDatum(type, entry.getValue())))
-            // Step 3: box every data result in a stream
-            .map(result -> result.map(Stream::of))
-            // Step 4: functional programming go brr
-            .reduce(DataResult.success(Stream.of()), (s1, s2) -> s1.apply2(Stream::concat, s2))
-            // Step 5: boom, we got a map
-            .map(s -> s.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    private static DataResult<Map<RecordType<?>, Object>> deserializeRawData(NbtCompound nbtData) {
+        Map<RecordType<?>, Object> data = new HashMap<>();
+        for (String key : nbtData.getKeys()) {
+            DataResult<Map.Entry<RecordType<?>, Object>> datum = tryParseRecordType(key).flatMap(type -> deserializeRawDatum(type, Objects.requireNonNull(nbtData.get(key))));
+            Optional<DataResult.PartialResult<Map.Entry<RecordType<?>, Object>>> error = datum.error();
+            if (error.isPresent()) return DataResult.error(error.get().message());
+            datum.result().ifPresent(entry -> data.put(entry.getKey(), entry.getValue()));
+        }
+        return DataResult.success(data);
     }
 
-    private DataResult<RecordType<?>> tryParseRecordType(String key) {
+    private static DataResult<RecordType<?>> tryParseRecordType(String key) {
         RecordType<?> type = RecordType.REGISTRY.get(Identifier.tryParse(key));
         if (type == null) return DataResult.error("Unknown record type %s".formatted(key));
         return DataResult.success(type);
     }
 
-    private <T> DataResult<Map.Entry<RecordType<?>, Object>> deserializeRawDatum(RecordType<T> type, NbtElement nbtData) {
+    private static <T> DataResult<Map.Entry<RecordType<?>, Object>> deserializeRawDatum(RecordType<T> type, NbtElement nbtData) {
         return type.getCodec().parse(NbtOps.INSTANCE, nbtData).map(value -> Map.entry(type, value));
     }
 
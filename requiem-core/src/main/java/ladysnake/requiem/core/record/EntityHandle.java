@@ -0,0 +1,98 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.record;
+
+import ladysnake.requiem.api.v1.record.EntityPointer;
+import ladysnake.requiem.api.v1.record.GlobalRecord;
+import ladysnake.requiem.api.v1.record.RecordType;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Caches the entity referenced by an {@link EntityPointer} stored in a {@link GlobalRecord}.
+ *
+ * <p>The pointer only gets {@linkplain EntityPointer#resolve(MinecraftServer) resolved} again when the record's data changes,
+ * or when the cached entity gets removed, unloaded, or moves to another dimension.
+ * The entity is weakly referenced, so that a stale handle never keeps it loaded.
+ */
+public final class EntityHandle {
+    private static final WeakReference<Entity> EMPTY = new WeakReference<>(null);
+
+    private final RecordType<EntityPointer> pointerType;
+    private @Nullable GlobalRecord record;
+    private int generation;
+    private @Nullable RegistryKey<World> world;
+    private WeakReference<Entity> entity = EMPTY;
+
+    public EntityHandle(RecordType<EntityPointer> pointerType) {
+        this.pointerType = pointerType;
+    }
+
+    /**
+     * @return the loaded entity referenced by {@code record}, or {@code null} if there is no such entity
+     */
+    public @Nullable Entity get(GlobalRecord record, MinecraftServer server) {
+        Entity cached = this.entity.get();
+        if (cached != null
+            && record == this.record
+            && record instanceof GlobalRecordImpl impl && impl.getGeneration() == this.generation
+            && !cached.isRemoved()
+            && cached.world.getRegistryKey() == this.world) {
+            return cached;
+        }
+        return this.resolve(record, server);
+    }
+
+    private @Nullable Entity resolve(GlobalRecord record, MinecraftServer server) {
+        EntityPointer pointer = record.get(this.pointerType).orElse(null);
+        Entity resolved = pointer == null ? null : pointer.resolve(server).orElse(null);
+        this.record = record;
+        this.generation = record instanceof GlobalRecordImpl impl ? impl.getGeneration() : 0;
+        this.world = pointer == null ? null : pointer.world();
+        this.entity = resolved == null ? EMPTY : new WeakReference<>(resolved);
+        return resolved;
+    }
+
+    public void invalidate() {
+        this.record = null;
+        this.world = null;
+        this.entity = EMPTY;
+    }
+}
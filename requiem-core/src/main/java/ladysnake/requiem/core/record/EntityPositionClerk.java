@@ -37,65 +37,181 @@ package ladysnake.requiem.core.record;
 import dev.onyxstudios.cca.api.v3.component.Component;
 import dev.onyxstudios.cca.api.v3.component.ComponentKey;
 import dev.onyxstudios.cca.api.v3.component.ComponentRegistry;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import ladysnake.requiem.api.v1.event.requiem.EntityRecordUpdateCallback;
 import ladysnake.requiem.api.v1.record.EntityPointer;
 import ladysnake.requiem.api.v1.record.GlobalRecord;
 import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
 import ladysnake.requiem.api.v1.record.RecordType;
 import ladysnake.requiem.core.RequiemCore;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtHelper;
 import net.minecraft.nbt.NbtList;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.Identifier;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Keeps {@link GlobalRecord}s up to date with the state of a linked entity.
+ *
+ * <p>By default, linked records are updated as soon as the entity changes block position,
+ * dies, or starts or stops ticking (which includes dimension changes and unloading).
+ * Movements within a single block are coalesced, and only get recorded every {@linkplain #setDriftInterval(int) drift interval}.
+ * A drift interval of {@code 0} reverts to updating every record on every tick.
+ *
+ * <p>Drift gets recorded by spreading ticking clerks across one bucket per tick of the drift interval,
+ * so that each server tick only flushes the clerks of a single bucket.
+ */
 public final class EntityPositionClerk implements Component {
     public static final ComponentKey<EntityPositionClerk> KEY = ComponentRegistry.getOrCreate(RequiemCore.id("entity_clerk"), EntityPositionClerk.class);
-    public static final Identifier UPDATE_ACTION_ID = RequiemCore.id("entity_status_sync");
+    public static final int DEFAULT_DRIFT_INTERVAL = 20;
+
+    private static int driftInterval = DEFAULT_DRIFT_INTERVAL;
+    private static List<Set<EntityPositionClerk>> driftBuckets = createDriftBuckets(DEFAULT_DRIFT_INTERVAL);
+
+    public static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(EntityPositionClerk::flushDrift);
+        // Integrated servers can be restarted within the same game session
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> driftBuckets.forEach(Set::clear));
+    }
 
     public static EntityPositionClerk get(LivingEntity entity) {
         return KEY.get(entity);
     }
 
+    /**
+     * @param interval the maximum number of ticks between an entity moving within a block and its linked records getting updated,
+     *                 or {@code 0} to update linked records every tick
+     */
+    public static void setDriftInterval(int interval) {
+        driftInterval = Math.max(0, interval);
+        int bucketCount = Math.max(1, driftInterval);
+
+        if (bucketCount != driftBuckets.size()) {
+            List<Set<EntityPositionClerk>> previousBuckets = driftBuckets;
+            driftBuckets = createDriftBuckets(bucketCount);
+            for (Set<EntityPositionClerk> bucket : previousBuckets) {
+                bucket.forEach(EntityPositionClerk::scheduleDriftFlushes);
+            }
+        }
+    }
+
+    private static List<Set<EntityPositionClerk>> createDriftBuckets(int count) {
+        List<Set<EntityPositionClerk>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(new ReferenceOpenHashSet<>());
+        }
+        return buckets;
+    }
+
+    private static void flushDrift(MinecraftServer server) {
+        server.getProfiler().push("requiem:entity_record_drift");
+        flushDrift(server.getTicks());
+        server.getProfiler().pop();
+    }
+
+    /**
+     * Records the drift of every ticking clerk in the bucket scheduled for the given tick.
+     * Called automatically at the end of every server tick.
+     */
+    public static void flushDrift(int tick) {
+        Set<EntityPositionClerk> bucket = driftBuckets.get(tick % driftBuckets.size());
+        if (!bucket.isEmpty()) {
+            // Record updates may cause entities to stop ticking
+            for (EntityPositionClerk clerk : new ArrayList<>(bucket)) {
+                clerk.flush();
+            }
+        }
+    }
+
     private final LivingEntity entity;
-    private final Map<GlobalRecord, RecordType<EntityPointer>> refs;
+    /**Shared empty map until a record gets linked, most entities never get linked*/
+    private Map<GlobalRecord, RecordType<EntityPointer>> refs = Map.of();
     private boolean ticking;
+    /**Index of the drift bucket holding this clerk, or {@code -1} if drift flushes are not scheduled*/
+    private int driftBucket = -1;
 
     public EntityPositionClerk(LivingEntity entity) {
         this.entity = entity;
-        this.refs = new HashMap<>();
     }
 
     public void linkWith(GlobalRecord record, RecordType<EntityPointer> pointerType) {
+        if (this.refs.isEmpty()) this.refs = new HashMap<>(2);
         this.refs.put(record, pointerType);
         this.updateRecord(record, pointerType);
 
-        if (this.ticking) {
-            record.addTickingAction(UPDATE_ACTION_ID, r -> updateRecord(r, pointerType));
+        if (this.ticking && this.driftBucket < 0) {
+            this.scheduleDriftFlushes();
         }
     }
 
     public void startTicking() {
         this.ticking = true;
-        for (var anchor : this.refs.entrySet()) {
-            anchor.getKey().addTickingAction(UPDATE_ACTION_ID, record -> updateRecord(record, anchor.getValue()));
+        // The entity may have been loaded in a new place, or in a new dimension
+        this.flush();
+        if (!this.refs.isEmpty()) {
+            this.scheduleDriftFlushes();
+        }
+    }
+
+    private void scheduleDriftFlushes() {
+        // Salt with the entity id to avoid updating every record on the same tick
+        this.driftBucket = Math.floorMod(this.entity.getId(), driftBuckets.size());
+        driftBuckets.get(this.driftBucket).add(this);
+    }
+
+    private void cancelDriftFlushes() {
+        if (this.driftBucket >= 0) {
+            driftBuckets.get(this.driftBucket).remove(this);
+            this.driftBucket = -1;
+        }
+    }
+
+    /**
+     * Immediately updates every linked record with the entity's current state.
+     */
+    public void flush() {
+        this.refs.forEach(this::updateRecord);
+    }
+
+    /**
+     * Called when the linked entity moves to a different block
+     */
+    public void onBlockPosChanged() {
+        if (this.ticking && driftInterval > 0) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Called when the linked entity dies
+     */
+    public void onDeath() {
+        if (this.ticking) {
+            this.flush();
         }
     }
 
     public void transferFrom(EntityPositionClerk original) {
         original.refs.forEach(this::linkWith);
-        original.refs.clear();
+        original.refs = Map.of();
+        original.cancelDriftFlushes();
     }
 
     public void stopTicking() {
-        for (GlobalRecord anchor : this.refs.keySet()) {
-            anchor.removeTickingAction(UPDATE_ACTION_ID);
-        }
+        // Record any drift that happened since the last update
+        this.flush();
+        this.cancelDriftFlushes();
         this.ticking = false;
     }
 
@@ -35,7 +35,6 @@
 package ladysnake.requiem.core.record;
 
 import ladysnake.requiem.api.v1.record.GlobalRecord;
-import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
 import ladysnake.requiem.api.v1.record.RecordType;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtOps;
@@ -54,15 +53,16 @@ import java.util.stream.Stream;
 public class GlobalRecordImpl implements GlobalRecord {
     public static final String ANCHOR_UUID_NBT = "uuid";
 
-    protected final GlobalRecordKeeper manager;
+    protected final CommonRecordKeeper manager;
     private final int id;
     private final UUID uuid;
     private final Map<RecordType<?>, Object> data;
     private final Map<Identifier, Consumer<GlobalRecord>> tickingActions;
     private final Set<RecordType<?>> missingData;
     private boolean invalid;
+    private int generation;
 
-    public GlobalRecordImpl(GlobalRecordKeeper manager, UUID uuid, int id) {
+    public GlobalRecordImpl(CommonRecordKeeper manager, UUID uuid, int id) {
         this.manager = manager;
         this.id = id;
         this.uuid = uuid;
@@ -71,7 +71,7 @@ public class GlobalRecordImpl implements GlobalRecord {
         this.missingData = new HashSet<>();
     }
 
-    GlobalRecordImpl(GlobalRecordKeeper manager, UUID uuid, int id, Map<RecordType<?>, Object> data) {
+    GlobalRecordImpl(CommonRecordKeeper manager, UUID uuid, int id, Map<RecordType<?>, Object> data) {
         this(manager, uuid, id);
         this.data.putAll(data);
     }
@@ -89,7 +89,22 @@ public class GlobalRecordImpl implements GlobalRecord {
     @Override
     public void remove(RecordType<?> type) {
         if (type.isRequired()) this.missingData.add(type);
-        this.data.remove(type);
+        this.removeData(type);
+    }
+
+    private <T> void removeData(RecordType<T> type) {
+        @SuppressWarnings("unchecked") T oldValue = (T) this.data.remove(type);
+        if (oldValue != null) {
+            this.generation++;
+            this.manager.onRecordUpdated(this, type, oldValue, null);
+        }
+    }
+
+    /**
+     * @return a counter that changes every time some of this record's data gets updated
+     */
+    public int getGeneration() {
+        return this.generation;
     }
 
     @Override
@@ -98,7 +113,9 @@ public class GlobalRecordImpl implements GlobalRecord {
             this.remove(type);
         } else {
             this.missingData.remove(type);
-            this.data.put(type, data);
+            @SuppressWarnings("unchecked") T oldValue = (T) this.data.put(type, data);
+            this.generation++;
+            this.manager.onRecordUpdated(this, type, oldValue, data);
         }
     }
 
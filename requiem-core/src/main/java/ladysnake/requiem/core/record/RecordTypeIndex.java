@@ -0,0 +1,170 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.record;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import ladysnake.requiem.api.v1.record.GlobalRecord;
+import ladysnake.requiem.api.v1.record.RecordType;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Secondary index of the records holding data of a single {@link RecordType},
+ * grouped by referenced world and, for {@linkplain RecordType#isLocated() located types}, by chunk.
+ */
+final class RecordTypeIndex<T> {
+    private final RecordType<T> type;
+    private final Set<GlobalRecord> records = new ReferenceOpenHashSet<>();
+    private final Map<RegistryKey<World>, Set<GlobalRecord>> recordsByWorld = new HashMap<>();
+    private final Map<RegistryKey<World>, Long2ObjectMap<Set<GlobalRecord>>> recordsByChunk = new HashMap<>();
+
+    RecordTypeIndex(RecordType<T> type) {
+        this.type = type;
+    }
+
+    void update(GlobalRecord record, @Nullable T oldValue, @Nullable T newValue) {
+        if (oldValue != null && newValue != null && this.isSameCell(oldValue, newValue)) {
+            return;
+        }
+
+        if (oldValue != null) this.remove(record, oldValue);
+        if (newValue != null) this.add(record, newValue);
+    }
+
+    void add(GlobalRecord record, T value) {
+        this.records.add(record);
+        this.type.getReferencedWorld(value).ifPresent(world -> {
+            this.recordsByWorld.computeIfAbsent(world, w -> new ReferenceOpenHashSet<>()).add(record);
+            BlockPos pos = this.type.getReferencedPosition(value);
+            if (pos != null) {
+                this.recordsByChunk.computeIfAbsent(world, w -> new Long2ObjectOpenHashMap<>())
+                    .computeIfAbsent(ChunkPos.toLong(pos), c -> new ReferenceOpenHashSet<>())
+                    .add(record);
+            }
+        });
+    }
+
+    void remove(GlobalRecord record, T value) {
+        this.records.remove(record);
+        this.type.getReferencedWorld(value).ifPresent(world -> {
+            removeFromBucket(this.recordsByWorld, world, record);
+            BlockPos pos = this.type.getReferencedPosition(value);
+            Long2ObjectMap<Set<GlobalRecord>> chunks = this.recordsByChunk.get(world);
+            if (pos != null && chunks != null) {
+                long chunkPos = ChunkPos.toLong(pos);
+                Set<GlobalRecord> bucket = chunks.get(chunkPos);
+                if (bucket != null && bucket.remove(record) && bucket.isEmpty()) {
+                    chunks.remove(chunkPos);
+                }
+            }
+        });
+    }
+
+    Stream<GlobalRecord> all() {
+        return this.records.stream();
+    }
+
+    Stream<GlobalRecord> inWorld(RegistryKey<World> world) {
+        return this.recordsByWorld.getOrDefault(world, Set.of()).stream();
+    }
+
+    Stream<GlobalRecord> near(RegistryKey<World> world, BlockPos pos, int radius) {
+        Long2ObjectMap<Set<GlobalRecord>> chunks = this.recordsByChunk.get(world);
+        if (chunks == null) return Stream.empty();
+
+        int minChunkX = (pos.getX() - radius) >> 4;
+        int maxChunkX = (pos.getX() + radius) >> 4;
+        int minChunkZ = (pos.getZ() - radius) >> 4;
+        int maxChunkZ = (pos.getZ() + radius) >> 4;
+        long searchedChunks = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        Stream<Set<GlobalRecord>> buckets;
+
+        if (searchedChunks > chunks.size()) {
+            // Fewer populated chunks than searched ones, cheaper to go through the former
+            buckets = chunks.long2ObjectEntrySet().stream()
+                .filter(e -> {
+                    int x = ChunkPos.getPackedX(e.getLongKey());
+                    int z = ChunkPos.getPackedZ(e.getLongKey());
+                    return x >= minChunkX && x <= maxChunkX && z >= minChunkZ && z <= maxChunkZ;
+                })
+                .map(Map.Entry::getValue);
+        } else {
+            Stream.Builder<Set<GlobalRecord>> builder = Stream.builder();
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                for (int z = minChunkZ; z <= maxChunkZ; z++) {
+                    Set<GlobalRecord> bucket = chunks.get(ChunkPos.toLong(x, z));
+                    if (bucket != null) builder.add(bucket);
+                }
+            }
+            buckets = builder.build();
+        }
+
+        long maxSquaredDistance = (long) radius * radius;
+        return buckets.flatMap(Set::stream)
+            .filter(record -> record.get(this.type)
+                .map(this.type::getReferencedPosition)
+                .filter(p -> p.getSquaredDistance(pos) <= maxSquaredDistance)
+                .isPresent());
+    }
+
+    private boolean isSameCell(T oldValue, T newValue) {
+        Optional<RegistryKey<World>> oldWorld = this.type.getReferencedWorld(oldValue);
+        if (!oldWorld.equals(this.type.getReferencedWorld(newValue))) return false;
+        BlockPos oldPos = this.type.getReferencedPosition(oldValue);
+        BlockPos newPos = this.type.getReferencedPosition(newValue);
+        return oldPos == null || newPos == null
+            ? Objects.equals(oldPos, newPos)
+            : ChunkPos.toLong(oldPos) == ChunkPos.toLong(newPos);
+    }
+
+    private static <K> void removeFromBucket(Map<K, Set<GlobalRecord>> buckets, K key, GlobalRecord record) {
+        Set<GlobalRecord> bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(record) && bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+}
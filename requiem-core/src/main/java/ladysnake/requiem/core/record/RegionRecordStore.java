@@ -0,0 +1,233 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.record;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import ladysnake.requiem.api.v1.record.GlobalRecord;
+import ladysnake.requiem.api.v1.record.RecordType;
+import ladysnake.requiem.core.RequiemCore;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Persists global records outside of the scoreboard, sharded by dimension and region.
+ *
+ * <p>Each record is stored in the shard of the region referenced by its first {@linkplain RecordType#isLocated() located} datum,
+ * or in a global shard if it has none. Records are only re-encoded when they have been {@linkplain #markDirty(GlobalRecord) marked dirty},
+ * and only shards containing dirty records get rewritten on save.
+ */
+final class RegionRecordStore {
+    static final String GLOBAL_SHARD = "global";
+    private static final String EXTENSION = ".dat";
+    /**Matches vanilla region files, 32x32 chunks*/
+    private static final int REGION_SHIFT = 9;
+
+    private final Path directory;
+    private final Map<UUID, String> shardByRecord = new HashMap<>();
+    private final Map<String, Map<UUID, NbtCompound>> shards = new HashMap<>();
+    private final Set<GlobalRecord> dirtyRecords = new ReferenceOpenHashSet<>();
+    private final Set<String> dirtyShards = new HashSet<>();
+
+    RegionRecordStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads every shard from disk. This method does not touch the store's state, and can be called from any thread.
+     *
+     * @return the raw record data contained in each shard, by shard key
+     */
+    Map<String, List<NbtCompound>> readShards() {
+        if (!Files.isDirectory(this.directory)) return Map.of();
+
+        Map<String, List<NbtCompound>> ret = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(EXTENSION))::iterator) {
+                String shardKey = this.getShardKey(file);
+                try {
+                    NbtCompound shardNbt = NbtIo.readCompressed(file.toFile());
+                    NbtList records = shardNbt.getList("records", NbtElement.COMPOUND_TYPE);
+                    List<NbtCompound> shard = new ArrayList<>(records.size());
+                    for (int i = 0; i < records.size(); i++) {
+                        shard.add(records.getCompound(i));
+                    }
+                    ret.put(shardKey, shard);
+                } catch (IOException e) {
+                    RequiemCore.LOGGER.error("Failed to read global record shard {}", file, e);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            RequiemCore.LOGGER.error("Failed to list global record shards in {}", this.directory, e);
+        }
+        return ret;
+    }
+
+    /**
+     * Registers a record that has been loaded from a shard, without marking anything dirty.
+     */
+    void track(UUID recordUuid, String shardKey, NbtCompound nbt) {
+        this.shardByRecord.put(recordUuid, shardKey);
+        this.shards.computeIfAbsent(shardKey, k -> new LinkedHashMap<>()).put(recordUuid, nbt);
+    }
+
+    /**
+     * Schedules a shard for rewriting, e.g. after some of its contents failed to load.
+     */
+    void markShardDirty(String shardKey) {
+        this.dirtyShards.add(shardKey);
+    }
+
+    void markDirty(GlobalRecord record) {
+        this.dirtyRecords.add(record);
+    }
+
+    /**
+     * Encodes every dirty record, then writes every shard which contents changed.
+     *
+     * @param isLive a predicate telling whether a record should still be saved
+     */
+    void save(Predicate<GlobalRecord> isLive) {
+        for (GlobalRecord record : this.dirtyRecords) {
+            String oldShard = this.shardByRecord.get(record.getUuid());
+            if (isLive.test(record)) {
+                String newShard = getShardKey(record);
+                if (oldShard != null && !oldShard.equals(newShard)) {
+                    this.untrack(record.getUuid(), oldShard);
+                }
+                this.track(record.getUuid(), newShard, record.toTag(new NbtCompound()));
+                this.dirtyShards.add(newShard);
+            } else if (oldShard != null) {
+                this.untrack(record.getUuid(), oldShard);
+            }
+        }
+        this.dirtyRecords.clear();
+
+        for (String shardKey : this.dirtyShards) {
+            this.writeShard(shardKey);
+        }
+        this.dirtyShards.clear();
+    }
+
+    private void untrack(UUID recordUuid, String shardKey) {
+        this.shardByRecord.remove(recordUuid);
+        Map<UUID, NbtCompound> shard = this.shards.get(shardKey);
+        if (shard != null) shard.remove(recordUuid);
+        this.dirtyShards.add(shardKey);
+    }
+
+    private void writeShard(String shardKey) {
+        Path file = this.directory.resolve(shardKey + EXTENSION);
+        Map<UUID, NbtCompound> shard = this.shards.get(shardKey);
+
+        try {
+            if (shard == null || shard.isEmpty()) {
+                this.shards.remove(shardKey);
+                Files.deleteIfExists(file);
+                return;
+            }
+
+            NbtList records = new NbtList();
+            records.addAll(shard.values());
+            NbtCompound shardNbt = new NbtCompound();
+            shardNbt.put("records", records);
+
+            Files.createDirectories(file.getParent());
+            File tmp = file.resolveSibling(file.getFileName() + "_tmp").toFile();
+            NbtIo.writeCompressed(shardNbt, tmp);
+            Files.move(tmp.toPath(), file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            RequiemCore.LOGGER.error("Failed to save global record shard {}", file, e);
+            // Try again on next save
+            this.dirtyShards.add(shardKey);
+        }
+    }
+
+    private String getShardKey(Path file) {
+        String relative = this.directory.relativize(file).toString().replace(File.separatorChar, '/');
+        return relative.substring(0, relative.length() - EXTENSION.length());
+    }
+
+    static String getShardKey(GlobalRecord record) {
+        RecordType<?> shardingType = null;
+
+        // Pick the located type with the lowest raw id, so that the choice is stable across loads
+        for (RecordType<?> type : (Iterable<RecordType<?>>) record.types()::iterator) {
+            if (type.isLocated() && (shardingType == null || RecordType.REGISTRY.getRawId(type) < RecordType.REGISTRY.getRawId(shardingType))) {
+                shardingType = type;
+            }
+        }
+
+        return shardingType == null ? GLOBAL_SHARD : getShardKey(record, shardingType);
+    }
+
+    private static <T> String getShardKey(GlobalRecord record, RecordType<T> type) {
+        @Nullable T value = record.get(type).orElse(null);
+        Optional<RegistryKey<World>> world = value == null ? Optional.empty() : type.getReferencedWorld(value);
+        @Nullable BlockPos pos = value == null ? null : type.getReferencedPosition(value);
+
+        if (world.isEmpty() || pos == null) return GLOBAL_SHARD;
+
+        return "%s/%s/r.%d.%d".formatted(
+            world.get().getValue().getNamespace(),
+            world.get().getValue().getPath(),
+            pos.getX() >> REGION_SHIFT,
+            pos.getZ() >> REGION_SHIFT
+        );
+    }
+}
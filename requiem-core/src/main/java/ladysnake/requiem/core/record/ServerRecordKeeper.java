@@ -34,23 +34,155 @@
  */
 package ladysnake.requiem.core.record;
 
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.DataResult;
 import ladysnake.requiem.api.v1.record.GlobalRecord;
 import ladysnake.requiem.api.v1.record.RecordType;
 import ladysnake.requiem.core.RequiemCore;
+import ladysnake.requiem.core.util.DataResults;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.scoreboard.Scoreboard;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Util;
+import net.minecraft.util.WorldSavePath;
 import net.minecraft.util.profiler.Profiler;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Server-side record keeper, which persists its records in a {@link RegionRecordStore}
+ * instead of the scoreboard's own data.
+ *
+ * <p>Every shard is read and parsed on the IO worker as soon as the scoreboard gets read, and the main thread
+ * only waits for that load to complete the first time the keeper gets accessed. This moves loading off the main thread,
+ * but does not make it lazy: the keeper's tick and UUID lookups span every record, so all shards get loaded
+ * on the first server tick at the latest.
+ */
 public class ServerRecordKeeper extends CommonRecordKeeper {
+    /**Version of the region storage layout, worlds without one either have no records or use the legacy scoreboard layout*/
+    public static final int STORAGE_VERSION = 1;
+
     private final MinecraftServer server;
+    private final RegionRecordStore store;
+    private @Nullable CompletableFuture<List<LoadedRecord>> pendingLoad;
+    private @Nullable NbtList legacyRecords;
+    private boolean loaded;
+    /**Storage version of records saved with an unknown layout, which must not be overwritten, or 0*/
+    private int unknownStorageVersion;
 
     public ServerRecordKeeper(Scoreboard scoreboard, MinecraftServer server) {
         super(scoreboard);
         this.server = server;
+        this.store = new RegionRecordStore(server.getSavePath(WorldSavePath.ROOT).resolve("data").resolve("requiem").resolve("records"));
+    }
+
+    /**
+     * Blocks until the background load started by {@link #readFromNbt(NbtCompound)} completes, then adds every loaded record.
+     * If no background load was started, every shard gets read synchronously instead.
+     */
+    @Override
+    protected void ensureLoaded() {
+        if (this.loaded) return;
+        this.loaded = true;
+
+        if (this.legacyRecords != null) {
+            this.migrateLegacyRecords(this.legacyRecords);
+            this.legacyRecords = null;
+        }
+
+        List<LoadedRecord> records = this.pendingLoad == null ? loadRecords(this.store) : this.pendingLoad.join();
+        this.pendingLoad = null;
+
+        for (LoadedRecord loaded : records) {
+            DataResults.ifPresentOrElse(
+                loaded.data(),
+                parsed -> {
+                    if (this.addRecord(this.restoreRecord(parsed.getFirst(), parsed.getSecond()))) {
+                        this.store.track(parsed.getFirst(), loaded.shardKey(), loaded.nbt());
+                    } else {
+                        this.store.markShardDirty(loaded.shardKey());
+                    }
+                },
+                partialResult -> {
+                    RequiemCore.LOGGER.error("Invalid save data - failed to decode global entity: %s %s".formatted(partialResult.message(), loaded.nbt()));
+                    this.store.markShardDirty(loaded.shardKey());
+                }
+            );
+        }
+    }
+
+    private void migrateLegacyRecords(NbtList legacyRecords) {
+        RequiemCore.LOGGER.info("Migrating {} global records to region storage", legacyRecords.size());
+
+        for (int i = 0; i < legacyRecords.size(); i++) {
+            NbtCompound nbt = legacyRecords.getCompound(i);
+            DataResults.ifPresentOrElse(
+                parseRecord(nbt),
+                parsed -> {
+                    GlobalRecord record = this.restoreRecord(parsed.getFirst(), parsed.getSecond());
+                    if (this.addRecord(record)) this.store.markDirty(record);
+                },
+                partialResult -> RequiemCore.LOGGER.error("Invalid save data - failed to decode global entity: %s %s".formatted(partialResult.message(), nbt))
+            );
+        }
+    }
+
+    private static List<LoadedRecord> loadRecords(RegionRecordStore store) {
+        List<LoadedRecord> ret = new ArrayList<>();
+        store.readShards().forEach((shardKey, shard) -> {
+            for (NbtCompound nbt : shard) {
+                ret.add(new LoadedRecord(shardKey, nbt, parseRecord(nbt)));
+            }
+        });
+        return ret;
+    }
+
+    @Override
+    protected void markDirty(GlobalRecord record) {
+        this.store.markDirty(record);
+    }
+
+    @Override
+    public void readFromNbt(NbtCompound tag) {
+        int storageVersion = tag.getInt("storage_version");
+        if (storageVersion > STORAGE_VERSION) {
+            RequiemCore.LOGGER.error("Global records were saved with storage version {}, but only version {} is supported - they will neither be loaded nor overwritten", storageVersion, STORAGE_VERSION);
+            this.unknownStorageVersion = storageVersion;
+            this.loaded = true;
+            return;
+        }
+
+        if (tag.contains("records", NbtElement.LIST_TYPE)) {
+            // Legacy layout, every record used to be stored in the scoreboard
+            // Migration is deferred until all worlds are available for validation
+            this.legacyRecords = tag.getList("records", NbtElement.COMPOUND_TYPE);
+        }
+
+        if (!this.loaded && this.pendingLoad == null) {
+            this.pendingLoad = CompletableFuture.supplyAsync(() -> loadRecords(this.store), Util.getIoWorkerExecutor());
+        }
+    }
+
+    @Override
+    public void writeToNbt(NbtCompound tag) {
+        if (this.unknownStorageVersion != 0) {
+            // Keep the unknown version, so that the records still get rejected on the next load
+            tag.putInt("storage_version", this.unknownStorageVersion);
+            return;
+        }
+        this.ensureLoaded();
+        this.store.save(this::isValid);
+        tag.putInt("storage_version", STORAGE_VERSION);
     }
 
     @Override
@@ -65,7 +197,7 @@ public class ServerRecordKeeper extends CommonRecordKeeper {
 
     @Override
     protected boolean checkWorld(GlobalRecord record) {
-        return record.types().map(t -> checkWorld(record, t)).reduce(true, Boolean::logicalAnd);
+        return record.types().toList().stream().map(t -> checkWorld(record, t)).reduce(true, Boolean::logicalAnd);
     }
 
     private <T> boolean checkWorld(GlobalRecord record, RecordType<T> type) {
@@ -79,4 +211,6 @@ public class ServerRecordKeeper extends CommonRecordKeeper {
         record.remove(type);
         return false;
     }
+
+    private record LoadedRecord(String shardKey, NbtCompound nbt, DataResult<Pair<UUID, Map<RecordType<?>, Object>>> data) { }
 }
@@ -52,7 +52,6 @@ import net.minecraft.resource.Resource;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.Pair;
 import net.minecraft.util.profiler.Profiler;
 
 import javax.annotation.Nullable;
@@ -61,12 +60,18 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
-public final class ResurrectionDataLoader implements SimpleResourceReloadListener<List<Pair<Identifier, JsonObject>>> {
+/**
+ * Loads {@link ResurrectionData} from data packs.
+ *
+ * <p>Every file is parsed in its own task on the preparation executor, and the resulting {@link ResurrectionTable}
+ * is published atomically, so that deaths happening during a reload never observe a partially loaded table.
+ */
+public final class ResurrectionDataLoader implements SimpleResourceReloadListener<ResurrectionTable> {
     public static final ResurrectionDataLoader INSTANCE = new ResurrectionDataLoader();
 
     public static final Gson GSON = new GsonBuilder()
@@ -74,7 +79,7 @@ public final class ResurrectionDataLoader implements SimpleResourceReloadListene
         .registerTypeAdapter(new TypeToken<EntityType<?>>() {}.getType(), new EntityTypeAdapter())
         .create();
 
-    private final List<ResurrectionData> resurrectionData = new ArrayList<>();
+    private volatile ResurrectionTable resurrectionData = ResurrectionTable.EMPTY;
 
     @Nullable
     public MobEntity getNextBody(ServerPlayerEntity player, DamageSource killingBlow) {
@@ -83,7 +88,7 @@ public final class ResurrectionDataLoader implements SimpleResourceReloadListene
 
     @Nullable
     public MobEntity getNextBody(ServerPlayerEntity player, @Nullable LivingEntity possessed, DamageSource killingBlow) {
-        for (ResurrectionData resurrectionDatum : resurrectionData) {
+        for (ResurrectionData resurrectionDatum : this.resurrectionData.getCandidates(possessed != null, killingBlow)) {
             if (resurrectionDatum.matches(player, possessed, killingBlow)) {
                 Entity nextBody = resurrectionDatum.createEntity(player.world);
                 if (nextBody instanceof MobEntity) {
@@ -96,33 +101,31 @@ public final class ResurrectionDataLoader implements SimpleResourceReloadListene
     }
 
     @Override
-    public CompletableFuture<List<Pair<Identifier, JsonObject>>> load(ResourceManager manager, Profiler profiler, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Pair<Identifier, JsonObject>> resurrectionData = new ArrayList<>();
-            for (Identifier location : manager.findResources("requiem_resurrections", (res) -> res.endsWith(".json"))) {
-                try (Resource res = manager.getResource(location); Reader in = new InputStreamReader(res.getInputStream())) {
-                    resurrectionData.add(new Pair<>(location, GSON.fromJson(in, JsonObject.class)));
-                } catch (IOException | JsonParseException e) {
-                    RequiemCore.LOGGER.error("[Requiem] Could not read resurrection data from {}", location, e);
+    public CompletableFuture<ResurrectionTable> load(ResourceManager manager, Profiler profiler, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> manager.findResources("requiem_resurrections", (res) -> res.endsWith(".json")), executor)
+            .thenCompose(locations -> {
+                List<CompletableFuture<Optional<ResurrectionData>>> parsed = new ArrayList<>(locations.size());
+                for (Identifier location : locations) {
+                    parsed.add(CompletableFuture.supplyAsync(() -> read(manager, location), executor));
                 }
-            }
-            return resurrectionData;
-        }, executor);
+                return CompletableFuture.allOf(parsed.toArray(CompletableFuture[]::new)).thenApply(v -> new ResurrectionTable(
+                    parsed.stream().map(CompletableFuture::join).flatMap(Optional::stream).sorted().toList()
+                ));
+            });
+    }
+
+    private static Optional<ResurrectionData> read(ResourceManager manager, Identifier location) {
+        try (Resource res = manager.getResource(location); Reader in = new InputStreamReader(res.getInputStream())) {
+            return Optional.of(ResurrectionData.deserialize(GSON.fromJson(in, JsonObject.class)));
+        } catch (IOException | JsonParseException e) {
+            RequiemCore.LOGGER.error("[Requiem] Could not read resurrection data from {}", location, e);
+            return Optional.empty();
+        }
     }
 
     @Override
-    public CompletableFuture<Void> apply(List<Pair<Identifier, JsonObject>> resurrectionData, ResourceManager resourceManager, Profiler profiler, Executor executor) {
-        return CompletableFuture.runAsync(() -> {
-            this.resurrectionData.clear();
-            for (Pair<Identifier, JsonObject> resurrectionDatum : resurrectionData) {
-                try {
-                    this.resurrectionData.add(ResurrectionData.deserialize(resurrectionDatum.getRight()));
-                } catch (JsonParseException e) {
-                    RequiemCore.LOGGER.error("[Requiem] Could not read resurrection data from {}", resurrectionDatum.getLeft(), e);
-                }
-            }
-            Collections.sort(this.resurrectionData);
-        }, executor);
+    public CompletableFuture<Void> apply(ResurrectionTable resurrectionData, ResourceManager resourceManager, Profiler profiler, Executor executor) {
+        return CompletableFuture.runAsync(() -> this.resurrectionData = resurrectionData, executor);
     }
 
     @Override
@@ -0,0 +1,120 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.resurrection;
+
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.predicate.entity.EntityPredicate;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of every loaded {@link ResurrectionData}, bucketed by the cheap checks performed on death.
+ *
+ * <p>Rules are split according to whether they apply to possessed deaths, and then according to the damage name they require.
+ * Every bucket keeps rules sorted by priority, so that the first matching rule is the same as in a full scan.
+ */
+public final class ResurrectionTable {
+    static final ResurrectionTable EMPTY = new ResurrectionTable(List.of());
+
+    private final Bucket soulDeaths;
+    private final Bucket possessedDeaths;
+
+    /**
+     * @param sortedRules every rule to include, in the order in which they should be tested
+     */
+    ResurrectionTable(List<ResurrectionData> sortedRules) {
+        List<ResurrectionData> soulRules = new ArrayList<>();
+        List<ResurrectionData> possessedRules = new ArrayList<>();
+        for (ResurrectionData rule : sortedRules) {
+            // A missing possessed predicate forbids having a host, while the ANY predicate allows both
+            if (rule.possessedPredicate() == null || rule.possessedPredicate() == EntityPredicate.ANY) {
+                soulRules.add(rule);
+            }
+            if (rule.possessedPredicate() != null) {
+                possessedRules.add(rule);
+            }
+        }
+        this.soulDeaths = new Bucket(soulRules);
+        this.possessedDeaths = new Bucket(possessedRules);
+    }
+
+    /**
+     * @return every rule that may match a death with the given parameters, sorted by priority
+     */
+    List<ResurrectionData> getCandidates(boolean possessed, DamageSource killingBlow) {
+        if (killingBlow.isOutOfWorld()) return List.of();
+        return (possessed ? this.possessedDeaths : this.soulDeaths).get(killingBlow.name);
+    }
+
+    private static final class Bucket {
+        private final Map<String, List<ResurrectionData>> byDamageName = new HashMap<>();
+        private final List<ResurrectionData> anyDamageName;
+
+        Bucket(List<ResurrectionData> rules) {
+            Set<String> damageNames = new HashSet<>();
+            List<ResurrectionData> anyDamageName = new ArrayList<>();
+            for (ResurrectionData rule : rules) {
+                String damageName = getDamageName(rule);
+                if (damageName == null) {
+                    anyDamageName.add(rule);
+                } else {
+                    damageNames.add(damageName);
+                }
+            }
+            this.anyDamageName = List.copyOf(anyDamageName);
+            for (String damageName : damageNames) {
+                this.byDamageName.put(damageName, rules.stream().filter(rule -> {
+                    String ruleDamageName = getDamageName(rule);
+                    return ruleDamageName == null || ruleDamageName.equals(damageName);
+                }).toList());
+            }
+        }
+
+        List<ResurrectionData> get(String damageName) {
+            return this.byDamageName.getOrDefault(damageName, this.anyDamageName);
+        }
+
+        private static @Nullable String getDamageName(ResurrectionData rule) {
+            ExtendedDamageSourcePredicate predicate = rule.damageSourcePredicate();
+            return predicate == null ? null : predicate.damageName();
+        }
+    }
+}
@@ -35,6 +35,7 @@
 package ladysnake.requiem.core.tag;
 
 import ladysnake.requiem.core.RequiemCore;
+import ladysnake.requiem.core.entity.EntityTraits;
 import net.minecraft.entity.EntityType;
 import net.minecraft.tag.TagKey;
 import net.minecraft.util.registry.Registry;
@@ -53,8 +54,12 @@ public final class RequiemCoreTags {
         public static final TagKey<EntityType<?>> ARMOR_BANNED = register("inventory/armor_banned");
         public static final TagKey<EntityType<?>> SOULLESS = register("possession/soulless");
 
+        public static void init() {
+            // NO-OP
+        }
+
         private static TagKey<EntityType<?>> register(String name) {
-            return TagKey.of(Registry.ENTITY_TYPE_KEY, RequiemCore.id(name));
+            return EntityTraits.register(TagKey.of(Registry.ENTITY_TYPE_KEY, RequiemCore.id(name)));
         }
     }
 
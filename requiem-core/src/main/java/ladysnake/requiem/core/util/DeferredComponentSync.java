@@ -0,0 +1,135 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.util;
+
+import dev.onyxstudios.cca.api.v3.component.ComponentKey;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.profiler.Profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Coalesces component syncs until the end of the server tick.
+ *
+ * <p>Components that may change several times in a tick {@linkplain #markDirty(ComponentKey, Entity) mark themselves dirty}
+ * instead of syncing right away, and every dirty component is synced once when the tick ends.
+ * Providers that got removed in the meantime are skipped, which also avoids syncing stale data
+ * to a player that just respawned.
+ *
+ * <p>Each sync that actually gets sent is reported to the server profiler as a {@code requiem:component_sync} visit.
+ */
+public final class DeferredComponentSync {
+    private static final Set<Entry> dirty = new ObjectLinkedOpenHashSet<>();
+    private static int requestCount;
+    private static int sentImmediately;
+    private static int sentLastTick;
+    private static boolean bypassed;
+
+    public static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(DeferredComponentSync::flush);
+        // Integrated servers can be restarted within the same game session
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> dirty.clear());
+    }
+
+    /**
+     * Schedules a sync of the component identified by {@code key} on {@code provider} for the end of the current tick.
+     * Calling this method several times during a tick results in a single sync. Does nothing on the client.
+     */
+    public static void markDirty(ComponentKey<?> key, Entity provider) {
+        if (!provider.world.isClient) {
+            requestCount++;
+            if (bypassed) {
+                key.sync(provider);
+                sentImmediately++;
+            } else {
+                dirty.add(new Entry(key, provider));
+            }
+        }
+    }
+
+    /**
+     * Makes every {@linkplain #markDirty(ComponentKey, Entity) sync request} get sent right away,
+     * to measure how many syncs would be sent without coalescing.
+     */
+    public static void setBypassed(boolean bypassed) {
+        DeferredComponentSync.bypassed = bypassed;
+    }
+
+    /**
+     * Immediately sends every pending sync. Called automatically at the end of every server tick.
+     */
+    public static void flush(MinecraftServer server) {
+        Profiler profiler = server.getProfiler();
+        int sent = sentImmediately;
+        sentImmediately = 0;
+        // Syncing may cause components to mark themselves dirty again, those get sent next tick
+        List<Entry> pending = new ArrayList<>(dirty);
+        dirty.clear();
+        requestCount = 0;
+
+        for (Entry entry : pending) {
+            if (!entry.provider().isRemoved()) {
+                entry.key().sync(entry.provider());
+                profiler.visit("requiem:component_sync");
+                sent++;
+            }
+        }
+
+        sentLastTick = sent;
+    }
+
+    /**
+     * @return the number of syncs sent by the last {@linkplain #flush(MinecraftServer) flush},
+     * including those sent right away while {@linkplain #setBypassed(boolean) bypassed}
+     */
+    public static int getSentLastTick() {
+        return sentLastTick;
+    }
+
+    /**
+     * @return the number of sync requests received since the last {@linkplain #flush(MinecraftServer) flush}
+     */
+    public static int getRequestCount() {
+        return requestCount;
+    }
+
+    private record Entry(ComponentKey<?> key, Entity provider) { }
+}
@@ -46,9 +46,6 @@ import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.math.Box;
-
-import java.util.List;
 
 /**
  * Simple mob detection helper thingy
@@ -87,17 +84,14 @@ public final class DetectionHelper {
     /**
      * Incites an individual mob and their buddies in a range.
      *
+     * <p>Buddies do not get incited immediately, they are {@linkplain DetectionScheduler scheduled} to look for the host over the next ticks.
+     *
      * @param host the host you want to be attacked.
      * @param hostile the mob you want to anger and find allies around.
      */
     public static void inciteMobAndAllies(MobEntity host, MobEntity hostile) {
         inciteMob(host, hostile);
-
-        List<HostileEntity> sawExchange = hostile.world.getEntitiesByClass(HostileEntity.class, Box.from(hostile.getPos()).expand(ALERT_RANGE), witness -> isValidEnemy(witness) && witness.isInWalkTargetRange(host.getBlockPos()) && witness.canSee(host));
-
-        for (HostileEntity witness : sawExchange) {
-            inciteMob(host, witness);
-        }
+        DetectionScheduler.get(hostile.world).scheduleCrowdAlert(host, hostile);
     }
 
     public static void attemptDetection(MobEntity sensed, Entity sensor, PossessionEvents.DetectionAttempt.DetectionReason reason) {
@@ -0,0 +1,187 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.core.util;
+
+import dev.onyxstudios.cca.api.v3.component.ComponentKey;
+import dev.onyxstudios.cca.api.v3.component.ComponentRegistry;
+import dev.onyxstudios.cca.api.v3.component.tick.ServerTickingComponent;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import ladysnake.requiem.core.RequiemCore;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.profiler.Profiler;
+import net.minecraft.world.World;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Spreads crowd detection over several ticks.
+ *
+ * <p>Crowd alerts raised for the same host during a tick are coalesced into a single entity query at the end of that tick.
+ * The resulting line-of-sight checks are then queued from the closest witness to the farthest,
+ * and only {@linkplain #setRaycastBudget(int) a limited amount} of them run every tick, so that alerts propagate as a wave.
+ * A budget of {@code 0} runs every queued check in the tick it was queued.
+ *
+ * <p>Each line-of-sight check is reported to the world profiler as a {@code requiem:detection_raycast} visit.
+ * This component is purely transient.
+ */
+public final class DetectionScheduler implements ServerTickingComponent {
+    public static final ComponentKey<DetectionScheduler> KEY = ComponentRegistry.getOrCreate(RequiemCore.id("detection_scheduler"), DetectionScheduler.class);
+    public static final int DEFAULT_RAYCAST_BUDGET = 16;
+
+    private static int raycastBudget = DEFAULT_RAYCAST_BUDGET;
+
+    public static DetectionScheduler get(World world) {
+        return KEY.get(world);
+    }
+
+    /**
+     * @param budget the maximum number of line-of-sight checks performed for crowd detection every tick,
+     *               or {@code 0} to perform every check in the tick it gets requested
+     */
+    public static void setRaycastBudget(int budget) {
+        raycastBudget = Math.max(0, budget);
+    }
+
+    private final World world;
+    /**Search areas for crowd alerts requested during the current tick, by host*/
+    private final Map<MobEntity, Box> pendingAlerts = new Reference2ObjectLinkedOpenHashMap<>();
+    private final Queue<SightCheck> sightChecks = new ArrayDeque<>();
+    private final Set<SightCheck> queuedChecks = new ObjectOpenHashSet<>();
+    private int raycastsLastTick;
+
+    public DetectionScheduler(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Schedules every valid enemy around {@code origin} that can see {@code host} to get incited against it.
+     */
+    public void scheduleCrowdAlert(MobEntity host, MobEntity origin) {
+        Box area = Box.from(origin.getPos()).expand(DetectionHelper.ALERT_RANGE);
+        this.pendingAlerts.merge(host, area, Box::union);
+    }
+
+    /**
+     * @return the number of line-of-sight checks performed during the last tick
+     */
+    public int getRaycastsLastTick() {
+        return this.raycastsLastTick;
+    }
+
+    /**
+     * @return the number of line-of-sight checks waiting for their turn
+     */
+    public int getQueuedChecks() {
+        return this.sightChecks.size();
+    }
+
+    @Override
+    public void serverTick() {
+        if (this.pendingAlerts.isEmpty() && this.sightChecks.isEmpty()) {
+            this.raycastsLastTick = 0;
+            return;
+        }
+
+        Profiler profiler = this.world.getProfiler();
+        profiler.push("requiem:detection");
+
+        for (Map.Entry<MobEntity, Box> alert : this.pendingAlerts.entrySet()) {
+            this.queueWitnesses(alert.getKey(), alert.getValue());
+        }
+        this.pendingAlerts.clear();
+
+        int raycasts = 0;
+        while (!this.sightChecks.isEmpty() && (raycastBudget == 0 || raycasts < raycastBudget)) {
+            SightCheck check = this.sightChecks.remove();
+            this.queuedChecks.remove(check);
+            if (check.isStillRelevant()) {
+                profiler.visit("requiem:detection_raycast");
+                raycasts++;
+                if (check.witness().canSee(check.host())) {
+                    DetectionHelper.inciteMob(check.host(), check.witness());
+                }
+            }
+        }
+        this.raycastsLastTick = raycasts;
+
+        profiler.pop();
+    }
+
+    private void queueWitnesses(MobEntity host, Box area) {
+        if (host.isRemoved() || !DetectionHelper.canBeDetected(host)) return;
+
+        List<HostileEntity> witnesses = this.world.getEntitiesByClass(
+            HostileEntity.class,
+            area,
+            witness -> DetectionHelper.isValidEnemy(witness) && witness.isInWalkTargetRange(host.getBlockPos())
+        );
+        // Closest witnesses get to look first, so the alert spreads outwards from the host
+        witnesses.sort(Comparator.comparingDouble(host::squaredDistanceTo));
+
+        for (HostileEntity witness : witnesses) {
+            SightCheck check = new SightCheck(host, witness);
+            if (this.queuedChecks.add(check)) {
+                this.sightChecks.add(check);
+            }
+        }
+    }
+
+    @Override
+    public void readFromNbt(NbtCompound tag) {
+        // NO-OP
+    }
+
+    @Override
+    public void writeToNbt(NbtCompound tag) {
+        // NO-OP
+    }
+
+    private record SightCheck(MobEntity host, MobEntity witness) {
+        boolean isStillRelevant() {
+            return !this.witness.isRemoved() && this.witness.isAlive()
+                && !this.host.isRemoved() && this.witness.world == this.host.world
+                && DetectionHelper.canBeDetected(this.host);
+        }
+    }
+}
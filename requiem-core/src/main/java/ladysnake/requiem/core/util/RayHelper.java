@@ -216,6 +216,109 @@ public final class RayHelper {
         return new EntityHitResult(target, pos);
     }
 
+    /**
+     * Finds the closest entity intersecting a segment, following the same rules as {@link #raycast(Entity, Vec3d, Vec3d, Box, Predicate, double)}.
+     *
+     * <p>Unlike the latter, this method does not allocate vectors or boxes for every candidate,
+     * and reports the squared distance to the hit instead of its position. An entity containing the start point is at distance {@code 0}.
+     *
+     * @param watcher       the entity looking for a target, which will not be targeted
+     * @param start         the start point
+     * @param direction     the normalized direction of the segment
+     * @param range         the length of the segment
+     * @param maxDistanceSq the squared distance beyond which entities cannot be hit
+     * @param predicate     a filter for candidate entities
+     * @param result        a holder for the result, which gets {@linkplain NearestHit#clear() cleared} if nothing is hit
+     */
+    public static void raycastNearest(Entity watcher, Vec3d start, Vec3d direction, double range, double maxDistanceSq, Predicate<Entity> predicate, NearestHit result) {
+        double dx = direction.x * range;
+        double dy = direction.y * range;
+        double dz = direction.z * range;
+        double lengthSq = dx * dx + dy * dy + dz * dz;
+        Box box = new Box(start.x - 1.0D, start.y - 1.0D, start.z - 1.0D, start.x + 1.0D, start.y + 1.0D, start.z + 1.0D).stretch(dx, dy, dz);
+        double r = maxDistanceSq;
+        result.clear();
+
+        for (Entity entity : watcher.world.getOtherEntities(watcher, box, predicate)) {
+            double fraction = hitFraction(entity.getBoundingBox(), entity.getTargetingMargin(), start, dx, dy, dz);
+            if (fraction < 0.0D) continue;
+
+            if (fraction == 0.0D) {
+                // the start point is inside the entity's bounding box
+                result.set(entity, 0.0D);
+                r = 0.0D;
+            } else {
+                double distanceSq = fraction * fraction * lengthSq;
+                if (distanceSq < r || r == 0.0D) {
+                    if (entity.getRootVehicle() == watcher.getRootVehicle()) {
+                        if (r == 0.0D) {
+                            result.set(entity, distanceSq);
+                        }
+                    } else {
+                        result.set(entity, distanceSq);
+                        r = distanceSq;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Intersects a segment with a box using the slab method.
+     *
+     * @return the fraction of the segment at which it enters the box, {@code 0} if it starts inside, or {@code -1} if it misses
+     */
+    private static double hitFraction(Box box, double margin, Vec3d start, double dx, double dy, double dz) {
+        double enter = 0.0D;
+        double exit = 1.0D;
+        for (int axis = 0; axis < 3; axis++) {
+            double min, max, s, d;
+            switch (axis) {
+                case 0 -> { min = box.minX; max = box.maxX; s = start.x; d = dx; }
+                case 1 -> { min = box.minY; max = box.maxY; s = start.y; d = dy; }
+                default -> { min = box.minZ; max = box.maxZ; s = start.z; d = dz; }
+            }
+            min -= margin;
+            max += margin;
+            if (Math.abs(d) < 1.0E-7D) {
+                if (s < min || s > max) return -1.0D;
+            } else {
+                double t1 = (min - s) / d;
+                double t2 = (max - s) / d;
+                enter = Math.max(enter, Math.min(t1, t2));
+                exit = Math.min(exit, Math.max(t1, t2));
+                if (enter > exit) return -1.0D;
+            }
+        }
+        return enter;
+    }
+
+    /**
+     * A reusable holder for the result of {@link #raycastNearest(Entity, Vec3d, Vec3d, double, double, Predicate, NearestHit)}
+     */
+    public static final class NearestHit {
+        private @Nullable Entity entity;
+        private double distanceSq = Double.POSITIVE_INFINITY;
+
+        public @Nullable Entity getEntity() {
+            return this.entity;
+        }
+
+        public double getDistanceSq() {
+            return this.distanceSq;
+        }
+
+        void set(Entity entity, double distanceSq) {
+            this.entity = entity;
+            this.distanceSq = distanceSq;
+        }
+
+        public void clear() {
+            this.entity = null;
+            this.distanceSq = Double.POSITIVE_INFINITY;
+        }
+    }
+
     public static class RaytraceException extends RuntimeException {
         public RaytraceException(String message) {
             super(message);
@@ -37,6 +37,7 @@ package ladysnake.requiem;
 import io.github.ladysnake.blabber.Blabber;
 import ladysnake.requiem.api.v1.RequiemPlugin;
 import ladysnake.requiem.api.v1.entity.ability.MobAbilityRegistry;
+import ladysnake.requiem.api.v1.event.minecraft.RegistryTagsPopulatedCallback;
 import ladysnake.requiem.api.v1.event.minecraft.SyncServerResourcesCallback;
 import ladysnake.requiem.api.v1.remnant.SoulbindingRegistry;
 import ladysnake.requiem.api.v1.util.SubDataManagerHelper;
@@ -59,15 +60,20 @@ import ladysnake.requiem.common.entity.effect.RequiemStatusEffects;
 import ladysnake.requiem.common.gamerule.RequiemGamerules;
 import ladysnake.requiem.common.item.RequiemItems;
 import ladysnake.requiem.common.loot.RequiemLootTables;
+import ladysnake.requiem.common.network.DataSyncCache;
 import ladysnake.requiem.common.network.RequiemNetworking;
 import ladysnake.requiem.common.network.ServerMessageHandling;
 import ladysnake.requiem.common.particle.RequiemParticleTypes;
 import ladysnake.requiem.common.sound.RequiemSoundEvents;
 import ladysnake.requiem.common.structure.RequiemStructures;
 import ladysnake.requiem.common.tag.RequiemEntityTypeTags;
+import ladysnake.requiem.common.util.ExtendedBlockState;
 import ladysnake.requiem.compat.RequiemCompatibilityManager;
+import ladysnake.requiem.core.record.EntityPositionClerk;
 import ladysnake.requiem.core.remnant.VagrantInteractionRegistryImpl;
 import ladysnake.requiem.core.resurrection.ResurrectionDataLoader;
+import ladysnake.requiem.core.tag.RequiemCoreTags;
+import ladysnake.requiem.core.util.DeferredComponentSync;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
@@ -75,6 +81,7 @@ import net.minecraft.command.argument.ArgumentTypes;
 import net.minecraft.command.argument.serialize.ConstantArgumentSerializer;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -97,6 +104,7 @@ public final class Requiem implements ModInitializer {
         RequiemEnchantments.init();
         RequiemEntities.init();
         RequiemEntityAttributes.init();
+        RequiemCoreTags.Entity.init();
         RequiemEntityTypeTags.init();
         RequiemGamerules.init();
         RequiemItems.init();
@@ -108,12 +116,20 @@ public final class Requiem implements ModInitializer {
         RequiemStatusEffects.init();
         RequiemStructures.init();
         ServerMessageHandling.init();
+        DataSyncCache.init();
+        DeferredComponentSync.init();
+        EntityPositionClerk.init();
         ApiInitializer.discoverEntryPoints();
         Blabber.registerAction(id("remnant_choice"), RemnantChoiceDialogueAction.CODEC);
         CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> RequiemCommand.register(dispatcher));
         ArgumentTypes.register("requiem:remnant", RemnantArgumentType.class, new ConstantArgumentSerializer<>(RemnantArgumentType::remnantType));
         ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(ResurrectionDataLoader.INSTANCE);
-        SyncServerResourcesCallback.EVENT.register(player -> RequiemNetworking.sendTo(player, RequiemNetworking.createDataSyncMessage(SubDataManagerHelper.getServerHelper())));
+        SyncServerResourcesCallback.EVENT.register(player -> RequiemNetworking.sendTo(player, RequiemNetworking.createDataSyncOfferMessage(SubDataManagerHelper.getServerHelper())));
+        RegistryTagsPopulatedCallback.EVENT.register(registry -> {
+            if (registry == Registry.BLOCK) {
+                ExtendedBlockState.rebuild();
+            }
+        });
         ApiInitializer.setPluginCallback(this::registerPlugin);
         RequiemCompatibilityManager.init();
     }
@@ -98,6 +98,10 @@ public final class RequiemClientListener implements
     private final RequiemClient rc;
     private final MinecraftClient mc = MinecraftClient.getInstance();
     private int timeBeforeDialogueGui;
+    // Tooltips get rebuilt every frame while hovered, so we remember the last one until the next tick
+    private @Nullable ItemStack cachedTooltipStack;
+    private @Nullable MobEntity cachedTooltipHost;
+    private List<Text> cachedTooltipLines = List.of();
 
     public RequiemClientListener(RequiemClient requiemClient) {
         this.rc = requiemClient;
@@ -149,6 +153,10 @@ public final class RequiemClientListener implements
 
     @Override
     public void onEndTick(MinecraftClient client) {
+        this.cachedTooltipStack = null;
+        this.cachedTooltipHost = null;
+        this.cachedTooltipLines = List.of();
+
         if (client.player != null) {
             MobEntity possessedEntity = PossessionComponent.get(client.player).getHost();
 
@@ -176,7 +184,12 @@ public final class RequiemClientListener implements
                 return;
             }
 
-            lines.addAll(PossessionItemOverrideWrapper.buildTooltip(player.world, player, possessed, item));
+            if (item != this.cachedTooltipStack || possessed != this.cachedTooltipHost) {
+                this.cachedTooltipStack = item;
+                this.cachedTooltipHost = possessed;
+                this.cachedTooltipLines = PossessionItemOverrideWrapper.buildTooltip(player.world, player, possessed, item);
+            }
+            lines.addAll(this.cachedTooltipLines);
 
             String key;
             if (possessed.getType().isIn(RequiemEntityTypeTags.ARROW_GENERATORS) && item.getItem() instanceof RangedWeaponItem) {
@@ -42,20 +42,23 @@ import ladysnake.requiem.api.v1.event.minecraft.client.CrosshairRenderCallback;
 import ladysnake.requiem.api.v1.event.minecraft.client.UpdateTargetedEntityCallback;
 import ladysnake.requiem.api.v1.remnant.RemnantComponent;
 import ladysnake.requiem.core.ability.PlayerAbilityController;
+import ladysnake.requiem.core.util.RayHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawableHelper;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.projectile.ProjectileUtil;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.hit.BlockHitResult;
-import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.hit.HitResult;
-import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
 
 public final class RequiemTargetHandler implements UpdateTargetedEntityCallback, CrosshairRenderCallback {
     private final MinecraftClient client = MinecraftClient.getInstance();
+    private final RayHelper.NearestHit hit = new RayHelper.NearestHit();
+    private @Nullable Predicate<Entity> targetingPredicate;
 
     void registerCallbacks() {
         CrosshairRenderCallback.EVENT.register(Requiem.id("target_handler"), this);
@@ -80,37 +83,30 @@ public final class RequiemTargetHandler implements UpdateTargetedEntityCallback,
 
         abilityController.clearTargets();
 
-        for (int i = 0; i < abilityTypes.length; i++) {
-            AbilityType k = abilityTypes[i];
-
-            double range = abilityController.getRange(k);
-            double effectiveRangeSq = Math.min(range * range, distanceToBlockSq);
-
-            Vec3d endPoint = startPoint.add(rotationVec.x * range, rotationVec.y * range, rotationVec.z * range);
-            Box box = entity.getBoundingBox().stretch(rotationVec.multiply(range)).expand(1.0D, 1.0D, 1.0D);
-            EntityHitResult entityHitResult = ProjectileUtil.raycast(
-                entity,
-                startPoint,
-                endPoint,
-                box,
-                ((GameRendererAccessor) client.gameRenderer)::requiem$isEligibleForTargeting,
-                effectiveRangeSq
-            );
-
-            if (entityHitResult != null) {
-                Entity hitEntity = entityHitResult.getEntity();
-                Vec3d hitPos = entityHitResult.getPos();
-                double distanceToHitSq = startPoint.squaredDistanceTo(hitPos);
-
-                if (distanceToHitSq < effectiveRangeSq || blockResult == null) {
+        // Ranges are nested, so a single query at the maximum range finds the closest entity for every ability
+        RayHelper.raycastNearest(entity, startPoint, rotationVec, maxRange, Math.min(maxRange * maxRange, distanceToBlockSq), this.getTargetingPredicate(), this.hit);
+        Entity hitEntity = this.hit.getEntity();
+
+        if (hitEntity != null) {
+            for (int i = 0; i < abilityTypes.length; i++) {
+                double range = abilityController.getRange(abilityTypes[i]);
+
+                if (this.hit.getDistanceSq() < Math.min(range * range, distanceToBlockSq)) {
                     // Every target after this one must have a higher range, so they will target the same entity
                     for (; i < abilityTypes.length; i++) {
-                        AbilityType eligibleAbility = abilityTypes[i];
-                        abilityController.tryTarget(eligibleAbility, hitEntity);
+                        abilityController.tryTarget(abilityTypes[i], hitEntity);
                     }
                 }
             }
+            this.hit.clear();   // do not keep the entity around
+        }
+    }
+
+    private Predicate<Entity> getTargetingPredicate() {
+        if (this.targetingPredicate == null) {
+            this.targetingPredicate = ((GameRendererAccessor) this.client.gameRenderer)::requiem$isEligibleForTargeting;
         }
+        return this.targetingPredicate;
     }
 
     @Override
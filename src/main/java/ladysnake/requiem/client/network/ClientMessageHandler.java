@@ -34,6 +34,9 @@
  */
 package ladysnake.requiem.client.network;
 
+import com.google.common.hash.HashCode;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import ladysnake.requiem.Requiem;
 import ladysnake.requiem.api.v1.possession.Possessable;
 import ladysnake.requiem.api.v1.remnant.RemnantType;
@@ -46,6 +49,7 @@ import ladysnake.requiem.common.remnant.RemnantTypes;
 import ladysnake.requiem.common.sound.RequiemSoundEvents;
 import ladysnake.requiem.core.RequiemCoreNetworking;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.resource.IdentifiableResourceReloadListener;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
@@ -59,6 +63,7 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.thread.ThreadExecutor;
 import net.minecraft.world.World;
 
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
@@ -109,17 +114,25 @@ public class ClientMessageHandler {
                 }
             });
         });
+        ClientPlayNetworking.registerGlobalReceiver(DATA_SYNC_OFFER, (client, handler, buf, responseSender) -> {
+            HashCode hash = HashCode.fromBytes(buf.readByteArray());
+            Path cacheFile = DataSyncDiskCache.getCacheFile(client, handler);
+            byte[] cached = cacheFile == null ? null : DataSyncDiskCache.load(cacheFile, hash);
+            if (cached != null) {
+                Requiem.LOGGER.debug("[Requiem] Using cached data {}", hash);
+                syncSubDataManagers(new PacketByteBuf(Unpooled.wrappedBuffer(cached)), client);
+            } else {
+                responseSender.sendPacket(DATA_SYNC_REQUEST, PacketByteBufs.empty());
+            }
+        });
         ClientPlayNetworking.registerGlobalReceiver(DATA_SYNC, (client, handler, buf, responseSender) -> {
-            // We intentionally do not use the context's task queue directly
-            // First, we make each sub data manager process its data, then we apply it synchronously with the task queue
-            Map<Identifier, SubDataManager<?>> map = SubDataManagerHelper.getClientHelper().streamDataManagers().collect(Collectors.toMap(IdentifiableResourceReloadListener::getFabricId, Function.identity()));
-            int nbManagers = buf.readVarInt();
-            for (int i = 0; i < nbManagers; i++) {
-                Identifier id = buf.readIdentifier();
-                SubDataManager<?> manager = Objects.requireNonNull(map.get(id), "Unknown sub data manager " + id);
-                Requiem.LOGGER.info("[Requiem] Received data for {}", manager.getFabricId());
-                syncSubDataManager(buf, manager, client);
+            HashCode hash = HashCode.fromBytes(buf.readByteArray());
+            Path cacheFile = DataSyncDiskCache.getCacheFile(client, handler);
+            if (cacheFile != null) {
+                DataSyncDiskCache.save(cacheFile, ByteBufUtil.getBytes(buf));
             }
+            Requiem.LOGGER.debug("[Requiem] Received data {}", hash);
+            syncSubDataManagers(buf, client);
         });
         ClientPlayNetworking.registerGlobalReceiver(ETHEREAL_ANIMATION, (client, handler, buf, responseSender) -> client.execute(() -> {
             MinecraftClient mc = this.mc;
@@ -148,6 +161,19 @@ public class ClientMessageHandler {
         });
     }
 
+    private static void syncSubDataManagers(PacketByteBuf buf, ThreadExecutor<?> taskQueue) {
+        // We intentionally do not use the context's task queue directly
+        // First, we make each sub data manager process its data, then we apply it synchronously with the task queue
+        Map<Identifier, SubDataManager<?>> map = SubDataManagerHelper.getClientHelper().streamDataManagers().collect(Collectors.toMap(IdentifiableResourceReloadListener::getFabricId, Function.identity()));
+        int nbManagers = buf.readVarInt();
+        for (int i = 0; i < nbManagers; i++) {
+            Identifier id = buf.readIdentifier();
+            SubDataManager<?> manager = Objects.requireNonNull(map.get(id), "Unknown sub data manager " + id);
+            Requiem.LOGGER.debug("[Requiem] Received data for {}", manager.getFabricId());
+            syncSubDataManager(buf, manager, taskQueue);
+        }
+    }
+
     private static <T> void syncSubDataManager(PacketByteBuf buffer, SubDataManager<T> subManager, ThreadExecutor<?> taskQueue) {
         T data = subManager.loadFromPacket(buffer);
         taskQueue.execute(() -> subManager.apply(data));
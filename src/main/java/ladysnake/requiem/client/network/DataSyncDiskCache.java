@@ -0,0 +1,95 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.client.network;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import ladysnake.requiem.Requiem;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Keeps the last data received from each multiplayer server, so that it does not get sent again
+ * as long as the server's data does not change.
+ */
+final class DataSyncDiskCache {
+    private static final Path CACHE_DIR = FabricLoader.getInstance().getGameDir().resolve("requiem").resolve("data_cache");
+
+    /**
+     * @return the file caching data for the server {@code handler} is connected to, or {@code null} if the connection is local
+     */
+    static @Nullable Path getCacheFile(MinecraftClient client, ClientPlayNetworkHandler handler) {
+        ServerInfo server = client.getCurrentServerEntry();
+        if (handler.getConnection().isLocal() || server == null) return null;
+        // hash the address, as it may contain characters that are not valid in file names
+        return CACHE_DIR.resolve(Hashing.sha256().hashString(server.address, StandardCharsets.UTF_8) + ".bin");
+    }
+
+    /**
+     * @return the cached data, or {@code null} if the cache is missing or does not match {@code expectedHash}
+     */
+    static @Nullable byte[] load(Path file, HashCode expectedHash) {
+        try {
+            byte[] data = Files.readAllBytes(file);
+            return Hashing.sha256().hashBytes(data).equals(expectedHash) ? data : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            Requiem.LOGGER.warn("[Requiem] Failed to read cached data from {}", file, e);
+            return null;
+        }
+    }
+
+    static void save(Path file, byte[] data) {
+        Util.getIoWorkerExecutor().execute(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, data);
+            } catch (IOException e) {
+                Requiem.LOGGER.warn("[Requiem] Failed to cache data to {}", file, e);
+            }
+        });
+    }
+}
@@ -39,6 +39,8 @@ import dev.onyxstudios.cca.api.v3.entity.EntityComponentInitializer;
 import dev.onyxstudios.cca.api.v3.entity.RespawnCopyStrategy;
 import dev.onyxstudios.cca.api.v3.scoreboard.ScoreboardComponentFactoryRegistry;
 import dev.onyxstudios.cca.api.v3.scoreboard.ScoreboardComponentInitializer;
+import dev.onyxstudios.cca.api.v3.world.WorldComponentFactoryRegistry;
+import dev.onyxstudios.cca.api.v3.world.WorldComponentInitializer;
 import ladysnake.requiem.api.v1.entity.CurableEntityComponent;
 import ladysnake.requiem.api.v1.entity.MovementAlterer;
 import ladysnake.requiem.api.v1.entity.ability.MobAbilityController;
@@ -50,6 +52,7 @@ import ladysnake.requiem.api.v1.remnant.AttritionFocus;
 import ladysnake.requiem.api.v1.remnant.DeathSuspender;
 import ladysnake.requiem.api.v1.remnant.RemnantComponent;
 import ladysnake.requiem.client.ClientRecordKeeper;
+import ladysnake.requiem.common.block.ObeliskTracker;
 import ladysnake.requiem.common.entity.CoolPlayerMovementAlterer;
 import ladysnake.requiem.common.entity.SkeletonBoneComponent;
 import ladysnake.requiem.common.entity.WololoComponent;
@@ -73,6 +76,7 @@ import ladysnake.requiem.core.possession.PossessionComponentImpl;
 import ladysnake.requiem.core.record.EntityPositionClerk;
 import ladysnake.requiem.core.record.ServerRecordKeeper;
 import ladysnake.requiem.core.remnant.RevivingDeathSuspender;
+import ladysnake.requiem.core.util.DetectionScheduler;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.mob.EndermanEntity;
 import net.minecraft.entity.mob.MobEntity;
@@ -80,7 +84,7 @@ import net.minecraft.entity.mob.ZombieVillagerEntity;
 import net.minecraft.entity.mob.ZombifiedPiglinEntity;
 import net.minecraft.entity.passive.GoatEntity;
 
-public final class RequiemComponents implements EntityComponentInitializer, ScoreboardComponentInitializer {
+public final class RequiemComponents implements EntityComponentInitializer, ScoreboardComponentInitializer, WorldComponentInitializer {
 
     @Override
     public void registerEntityComponentFactories(EntityComponentFactoryRegistry registry) {
@@ -117,4 +121,10 @@ public final class RequiemComponents implements EntityComponentInitializer, Scor
             : new ServerRecordKeeper(scoreboard, server)
         );
     }
+
+    @Override
+    public void registerWorldComponentFactories(WorldComponentFactoryRegistry registry) {
+        registry.register(ObeliskTracker.KEY, world -> new ObeliskTracker());
+        registry.register(DetectionScheduler.KEY, DetectionScheduler::new);
+    }
 }
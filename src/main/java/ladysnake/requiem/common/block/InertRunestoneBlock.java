@@ -70,15 +70,14 @@ public class InertRunestoneBlock extends BlockWithEntity {
     }
 
     public static void registerCallbacks() {
-        BlockReplacedCallback.EVENT.register((oldState, world, pos, newState, moved) -> {
-            if (oldState.isIn(RequiemBlockTags.OBELISK_FRAME) != newState.isIn(RequiemBlockTags.OBELISK_FRAME)) {
-                for (BlockPos checkedPos : BlockPos.iterate(pos.getX() - 1, pos.getY() - 1, pos.getZ() - 1, pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1)) {
-                    // only tachylite blocks in diagonals from core blocks matter
-                    if (checkedPos.getManhattanDistance(pos) > 1) {
-                        BlockState checkedState = world.getBlockState(checkedPos);
-                        if (checkedState.isIn(RequiemBlockTags.OBELISK_CORE)) {
-                            world.createAndScheduleBlockTick(checkedPos, checkedState.getBlock(), 0);
-                        }
+        BlockReplacedCallback.registerInChunks(ObeliskTracker::hasObeliskIn, (oldState, world, pos, newState, moved) -> ObeliskTracker.get(world).onBlockChanged(pos));
+        BlockReplacedCallback.registerTagChange(RequiemBlockTags.OBELISK_FRAME, (oldState, world, pos, newState, moved) -> {
+            for (BlockPos checkedPos : BlockPos.iterate(pos.getX() - 1, pos.getY() - 1, pos.getZ() - 1, pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1)) {
+                // only tachylite blocks in diagonals from core blocks matter
+                if (checkedPos.getManhattanDistance(pos) > 1) {
+                    BlockState checkedState = world.getBlockState(checkedPos);
+                    if (checkedState.isIn(RequiemBlockTags.OBELISK_CORE)) {
+                        world.createAndScheduleBlockTick(checkedPos, checkedState.getBlock(), 0);
                     }
                 }
             }
@@ -155,6 +154,9 @@ public class InertRunestoneBlock extends BlockWithEntity {
 
     @Override
     public void neighborUpdate(BlockState state, World world, BlockPos pos, Block block, BlockPos fromPos, boolean notify) {
+        if (!world.isClient) {
+            ObeliskTracker.get(world).onBlockChanged(fromPos);
+        }
         world.createAndScheduleBlockTick(pos, this, 0);
     }
 
@@ -39,6 +39,7 @@ import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import ladysnake.requiem.api.v1.block.ObeliskRune;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.List;
@@ -86,6 +87,16 @@ public final class ObeliskMatch {
         return this.coreHeight;
     }
 
+    /**
+     * @return a box containing every block that is part of this obelisk, including its base and cap
+     */
+    public BlockBox bounds() {
+        return new BlockBox(
+            this.origin.getX() - 1, this.origin.getY() - 1, this.origin.getZ() - 1,
+            this.origin.getX() + this.coreWidth, this.origin.getY() + this.coreHeight, this.origin.getZ() + this.coreWidth
+        );
+    }
+
     public Object2IntMap<ObeliskRune> collectRunes() {
         Object2IntMap<ObeliskRune> levels = new Object2IntOpenHashMap<>();
         for (RunestoneBlockEntity.RuneSearchResult result : this.layers) {
@@ -0,0 +1,192 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.common.block;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.tag.BlockTags;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * A heightmap of the blocks that can power an obelisk, covering every column in its range.
+ *
+ * <p>For each column, this map stores the first solid block found when going down from the obelisk's base,
+ * and whether that block is a soul speed block. Individual columns get refreshed when a block changes
+ * at or above their recorded surface.
+ */
+final class ObeliskPowerMap {
+    private static final int NO_SURFACE = Integer.MIN_VALUE;
+
+    private final Vec3d center;
+    private final int range;
+    private final int minX;
+    private final int minZ;
+    private final int size;
+    private final int topY;
+    private final int[] surfaceY;
+    private final BitSet soulColumns;
+
+    static ObeliskPowerMap build(World world, Vec3d center, int range) {
+        ObeliskPowerMap map = new ObeliskPowerMap(center, range);
+        BlockPos.Mutable checked = new BlockPos.Mutable();
+        for (int column = 0; column < map.size * map.size; column++) {
+            map.scanColumn(world, column, checked);
+        }
+        return map;
+    }
+
+    private ObeliskPowerMap(Vec3d center, int range) {
+        this.center = center;
+        this.range = range;
+        this.minX = (int) Math.round(center.x - range);
+        this.minZ = (int) Math.round(center.z - range);
+        this.size = (int) Math.round(center.x + range) - this.minX + 1;
+        this.topY = (int) Math.floor(center.y);
+        this.surfaceY = new int[this.size * this.size];
+        this.soulColumns = new BitSet(this.size * this.size);
+    }
+
+    boolean matches(Vec3d center, int range) {
+        return this.range == range && this.center.equals(center);
+    }
+
+    BlockBox bounds(World world) {
+        return new BlockBox(this.minX, world.getBottomY(), this.minZ, this.minX + this.size - 1, this.topY, this.minZ + this.size - 1);
+    }
+
+    /**
+     * Refreshes the column containing {@code pos} if the change could affect it
+     */
+    void onBlockChanged(World world, BlockPos pos) {
+        int dx = pos.getX() - this.minX;
+        int dz = pos.getZ() - this.minZ;
+        if (dx >= 0 && dx < this.size && dz >= 0 && dz < this.size && pos.getY() <= this.topY) {
+            int column = dx * this.size + dz;
+            // Changes below the surface are hidden from the obelisk
+            if (pos.getY() >= this.surfaceY[column]) {
+                this.scanColumn(world, column, new BlockPos.Mutable());
+            }
+        }
+    }
+
+    private void scanColumn(World world, int column, BlockPos.Mutable checked) {
+        checked.set(this.minX + column / this.size, this.topY, this.minZ + column % this.size);
+        BlockState surface = findSurface(world, checked);
+
+        if (surface == null) {
+            this.surfaceY[column] = NO_SURFACE;
+            this.soulColumns.clear(column);
+        } else {
+            this.surfaceY[column] = checked.getY();
+            this.soulColumns.set(column, surface.isIn(BlockTags.SOUL_SPEED_BLOCKS));
+        }
+    }
+
+    /**
+     * Moves {@code checked} down to the first solid block in its column
+     *
+     * @return the state of the solid block found, or {@code null} if the column is empty down to the world's bottom
+     */
+    private static @Nullable BlockState findSurface(World world, BlockPos.Mutable checked) {
+        BlockState state = world.getBlockState(checked);
+
+        while (!state.isSolidBlock(world, checked)) {
+            if (checked.getY() <= world.getBottomY()) {
+                return null;
+            }
+            checked.move(Direction.DOWN);
+            state = world.getBlockState(checked);
+        }
+
+        return state;
+    }
+
+    /**
+     * Samples random columns in range like {@link #sample(ServerWorld, int)}, but scans only the sampled columns
+     * instead of building a map that would get thrown away right after.
+     *
+     * @return {@code true} if more than half the attempts found a power source
+     */
+    static boolean sampleUnmapped(ServerWorld world, Vec3d center, int range, int attempts) {
+        int minX = (int) Math.round(center.x - range);
+        int minZ = (int) Math.round(center.z - range);
+        int size = (int) Math.round(center.x + range) - minX + 1;
+        BlockPos.Mutable checked = new BlockPos.Mutable();
+        int successes = 0;
+
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            int column = world.random.nextInt(size * size);
+            checked.set(minX + column / size, (int) Math.floor(center.y), minZ + column % size);
+            BlockState surface = findSurface(world, checked);
+
+            if (surface != null && surface.isIn(BlockTags.SOUL_SPEED_BLOCKS)) {
+                RunestoneBlockEntity.spawnSoul(world, center, Vec3d.ofCenter(checked, 0.9));
+                successes++;
+            }
+        }
+
+        return successes > attempts / 2;
+    }
+
+    /**
+     * Picks random columns in range, and spawns a soul particle above every one that can power the obelisk.
+     *
+     * @return {@code true} if more than half the attempts found a power source
+     */
+    boolean sample(ServerWorld world, int attempts) {
+        int successes = 0;
+
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            int column = world.random.nextInt(this.size * this.size);
+            if (this.soulColumns.get(column)) {
+                RunestoneBlockEntity.spawnSoul(world, this.center, new Vec3d(
+                    this.minX + column / this.size + 0.5,
+                    this.surfaceY[column] + 0.9,
+                    this.minZ + column % this.size + 0.5
+                ));
+                successes++;
+            }
+        }
+
+        return successes > attempts / 2;
+    }
+}
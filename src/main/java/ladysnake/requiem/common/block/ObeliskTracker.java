@@ -0,0 +1,143 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.common.block;
+
+import dev.onyxstudios.cca.api.v3.component.Component;
+import dev.onyxstudios.cca.api.v3.component.ComponentKey;
+import dev.onyxstudios.cca.api.v3.component.ComponentRegistry;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import ladysnake.requiem.Requiem;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps track of the loaded obelisks in a world, indexed by the chunks their structure and power sources span.
+ *
+ * <p>This lets block changes invalidate the cached structure and power map of the obelisks they affect,
+ * without every obelisk having to re-scan its surroundings periodically.
+ * This component is purely transient, obelisks register themselves again when they get loaded.
+ */
+public final class ObeliskTracker implements Component {
+    public static final ComponentKey<ObeliskTracker> KEY = ComponentRegistry.getOrCreate(Requiem.id("obelisk_tracker"), ObeliskTracker.class);
+    private static final int PRESENCE_BITS = 4096;
+
+    public static ObeliskTracker get(World world) {
+        return KEY.get(world);
+    }
+
+    /**
+     * Checks whether any obelisk tracks the given chunk, used to filter out unrelated block changes
+     */
+    public static boolean hasObeliskIn(World world, int chunkX, int chunkZ) {
+        ObeliskTracker tracker = KEY.getNullable(world);
+        return tracker != null && tracker.isTracked(ChunkPos.toLong(chunkX, chunkZ));
+    }
+
+    private final Long2ObjectMap<Set<RunestoneBlockEntity>> obelisksByChunk = new Long2ObjectOpenHashMap<>();
+    /**Number of tracked chunks for each chunk position hash, zero meaning that no obelisk tracks any chunk with that hash*/
+    private final int[] chunkPresence = new int[PRESENCE_BITS];
+
+    void track(RunestoneBlockEntity obelisk, BlockBox bounds) {
+        forEachChunk(bounds, chunk -> {
+            Set<RunestoneBlockEntity> obelisks = this.obelisksByChunk.get(chunk);
+            if (obelisks == null) {
+                obelisks = new ReferenceOpenHashSet<>();
+                this.obelisksByChunk.put(chunk, obelisks);
+                this.chunkPresence[presenceBit(chunk)]++;
+            }
+            obelisks.add(obelisk);
+        });
+    }
+
+    void untrack(RunestoneBlockEntity obelisk, BlockBox bounds) {
+        forEachChunk(bounds, chunk -> {
+            Set<RunestoneBlockEntity> obelisks = this.obelisksByChunk.get(chunk);
+            if (obelisks != null && obelisks.remove(obelisk) && obelisks.isEmpty()) {
+                this.obelisksByChunk.remove(chunk);
+                // Several chunks can share a hash, so the count only reaches zero once the last of them is gone
+                this.chunkPresence[presenceBit(chunk)]--;
+            }
+        });
+    }
+
+    private boolean isTracked(long chunk) {
+        return this.chunkPresence[presenceBit(chunk)] != 0 && this.obelisksByChunk.containsKey(chunk);
+    }
+
+    private static int presenceBit(long chunk) {
+        return (int) HashCommon.mix(chunk) & (PRESENCE_BITS - 1);
+    }
+
+    /**
+     * Invalidates the cached structure or power map of every obelisk which bounding box contains {@code pos}
+     *
+     * @param pos the position of a block that just changed
+     */
+    public void onBlockChanged(BlockPos pos) {
+        Set<RunestoneBlockEntity> obelisks = this.obelisksByChunk.get(ChunkPos.toLong(pos));
+        if (obelisks != null) {
+            for (RunestoneBlockEntity obelisk : obelisks) {
+                obelisk.onBlockChanged(pos);
+            }
+        }
+    }
+
+    private static void forEachChunk(BlockBox bounds, LongConsumer action) {
+        for (int chunkX = bounds.getMinX() >> 4; chunkX <= bounds.getMaxX() >> 4; chunkX++) {
+            for (int chunkZ = bounds.getMinZ() >> 4; chunkZ <= bounds.getMaxZ() >> 4; chunkZ++) {
+                action.accept(ChunkPos.toLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    @Override
+    public void readFromNbt(NbtCompound tag) {
+        // NO-OP
+    }
+
+    @Override
+    public void writeToNbt(NbtCompound tag) {
+        // NO-OP
+    }
+}
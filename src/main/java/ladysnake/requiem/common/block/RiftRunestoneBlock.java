@@ -86,7 +86,7 @@ public class RiftRunestoneBlock extends InertRunestoneBlock implements ObeliskRu
             return ActionResult.SUCCESS;
         } else {
             RunestoneBlockEntity.findObeliskOrigin(world, pos)
-                .filter(origin -> RunestoneBlockEntity.checkForPower(sw, pos))
+                .filter(origin -> RunestoneBlockEntity.checkForPower(sw, origin))
                 .ifPresent(origin -> {
                     player.openHandledScreen(state.createScreenHandlerFactory(world, origin));
                     player.incrementStat(RequiemStats.INTERACT_WITH_RIFT);
@@ -102,10 +102,9 @@ public class RiftRunestoneBlock extends InertRunestoneBlock implements ObeliskRu
         if (world.getBlockEntity(pos) instanceof RunestoneBlockEntity controller) {
             return new RiftScreenHandlerFactory(
                 controller.getDescriptor().orElseThrow(),
-                GlobalRecordKeeper.get(world).getRecords().stream()
+                GlobalRecordKeeper.get(world).getRecords(RequiemRecordTypes.OBELISK_REF, world.getRegistryKey())
                     .filter(r -> r.get(RequiemRecordTypes.RIFT_OBELISK).isPresent())
                     .flatMap(r -> r.get(RequiemRecordTypes.OBELISK_REF).stream())
-                    .filter(p -> p.dimension() == world.getRegistryKey())
                     .collect(Collectors.toSet()),
                 controller::canBeUsedBy);
         }
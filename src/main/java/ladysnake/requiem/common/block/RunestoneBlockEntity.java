@@ -56,8 +56,8 @@ import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
-import net.minecraft.tag.BlockTags;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
@@ -84,11 +84,19 @@ public class RunestoneBlockEntity extends InertRunestoneBlockEntity {
     public static final DataResult<ObeliskMatch> INVALID_CORE = DataResult.error("Structure does not have a matching runic core");
     public static final DataResult<ObeliskMatch> INVALID_CAP = DataResult.error("Structure does not have a matching cap");
     public static final int NO_MATCH = 0;
+    /**Number of refresh cycles after which the structure gets re-scanned even if no change was detected*/
+    public static final int FULL_SCAN_INTERVAL = 30;
 
     private final Object2IntMap<ObeliskRune> levels = new Object2IntOpenHashMap<>();
     private @Nullable UUID recordUuid;
     private int obeliskCoreWidth = 0;
     private int obeliskCoreHeight = 0;
+    private @Nullable ObeliskMatch cachedMatch;
+    private @Nullable BlockBox cachedBounds;
+    private @Nullable BlockBox trackedBounds;
+    private @Nullable ObeliskPowerMap powerMap;
+    private boolean structureDirty = true;
+    private int cyclesSinceFullScan;
 
     public RunestoneBlockEntity(BlockPos pos, BlockState state) {
         super(RequiemBlockEntities.RUNIC_OBSIDIAN, pos, state);
@@ -105,12 +113,11 @@ public class RunestoneBlockEntity extends InertRunestoneBlockEntity {
                 return;
             }
 
-            be.refreshStructure(state);
-
-            int obeliskWidth = be.obeliskCoreWidth;
-            Vec3d obeliskCenter = getObeliskCenter(pos, obeliskWidth);
+            if (be.structureDirty || ++be.cyclesSinceFullScan >= FULL_SCAN_INTERVAL) {
+                be.refreshStructure(state);
+            }
 
-            if (!be.levels.isEmpty() && findPowerSource((ServerWorld) world, obeliskCenter, getRange(obeliskWidth))) {
+            if (!be.levels.isEmpty() && be.getPowerMap().sample((ServerWorld) world, POWER_ATTEMPTS)) {
                 be.applyPlayerEffects(world, pos);
                 world.playSound(null, pos, RequiemSoundEvents.BLOCK_OBELISK_AMBIENT, SoundCategory.BLOCKS, 1.0F, 1.4F);
             }
@@ -157,39 +164,19 @@ public class RunestoneBlockEntity extends InertRunestoneBlockEntity {
     }
 
     public static boolean checkForPower(ServerWorld world, BlockPos origin) {
-        return matchObelisk(world, origin).result().map(match -> findPowerSource(
-            world,
-            getObeliskCenter(match.origin(), match.coreWidth()),
-            getRange(match.coreWidth()))
-        ).orElse(Boolean.FALSE);
-    }
-
-    private static boolean findPowerSource(ServerWorld world, Vec3d center, double range) {
-        BlockPos.Mutable checked = new BlockPos.Mutable();
-        int successes = 0;
-
-        for (int attempt = 0; attempt < RunestoneBlockEntity.POWER_ATTEMPTS; attempt++) {
-            double x = center.x + world.random.nextDouble() * range * 2 - range;
-            double z = center.z + world.random.nextDouble() * range * 2 - range;
-            checked.set(Math.round(x), center.y, Math.round(z));
-            BlockState state = world.getBlockState(checked);
-
-            while (!state.isSolidBlock(world, checked)) {
-                checked.move(Direction.DOWN);
-                state = world.getBlockState(checked);
-            }
-
-            if (state.isIn(BlockTags.SOUL_SPEED_BLOCKS)) {
-                spawnSoul(world, center, Vec3d.ofCenter(checked, 0.9));
-                successes++;
-            }
+        if (world.getBlockEntity(origin) instanceof RunestoneBlockEntity be && be.getCachedMatch().isPresent()) {
+            return be.getPowerMap().sample(world, POWER_ATTEMPTS);
         }
 
-        // Require more than half of the attempts to be successful
-        return successes > POWER_ATTEMPTS / 2;
+        return matchObelisk(world, origin).result().map(match -> ObeliskPowerMap.sampleUnmapped(
+            world,
+            getObeliskCenter(match.origin(), match.coreWidth()),
+            getRange(match.coreWidth()),
+            POWER_ATTEMPTS
+        )).orElse(Boolean.FALSE);
     }
 
-    private static void spawnSoul(ServerWorld world, Vec3d center, Vec3d particleSrc) {
+    static void spawnSoul(ServerWorld world, Vec3d center, Vec3d particleSrc) {
         Vec3d toObelisk = center.subtract(particleSrc).normalize();
         world.spawnParticles(RequiemParticleTypes.OBELISK_SOUL, particleSrc.x, particleSrc.y, particleSrc.z, 0, toObelisk.x, 1, toObelisk.z, 0.1);
     }
@@ -210,11 +197,51 @@ public class RunestoneBlockEntity extends InertRunestoneBlockEntity {
         return Optional.empty();
     }
 
+    /**
+     * @return the last structure matched by this obelisk, if it is still known to be valid
+     */
+    public Optional<ObeliskMatch> getCachedMatch() {
+        return this.structureDirty ? Optional.empty() : Optional.ofNullable(this.cachedMatch);
+    }
+
+    /**
+     * Called when a block changes within a chunk spanned by this obelisk's cached structure or power map
+     */
+    void onBlockChanged(BlockPos changedPos) {
+        if (this.cachedBounds != null && this.cachedBounds.contains(changedPos)) {
+            this.structureDirty = true;
+        }
+
+        if (this.powerMap != null && this.world != null) {
+            this.powerMap.onBlockChanged(this.world, changedPos);
+        }
+    }
+
+    /**
+     * @return the power map for the last matched structure, built on first use
+     */
+    private ObeliskPowerMap getPowerMap() {
+        assert this.world != null;
+        Vec3d center = getObeliskCenter(this.pos, this.obeliskCoreWidth);
+        int range = getRange(this.obeliskCoreWidth);
+
+        if (this.powerMap == null || !this.powerMap.matches(center, range)) {
+            this.powerMap = ObeliskPowerMap.build(this.world, center, range);
+            this.updateTrackedBounds(this.cachedBounds);
+        }
+
+        return this.powerMap;
+    }
+
     private void refreshStructure(BlockState state) {
         assert this.world != null;
         this.levels.clear();
         this.obeliskCoreWidth = 0;
         this.obeliskCoreHeight = 0;
+        this.cyclesSinceFullScan = 0;
+        this.structureDirty = true;
+        this.cachedMatch = null;
+        this.updateTrackedBounds(null);
 
         matchObelisk(this.world, this.pos).result()
             .ifPresentOrElse(
@@ -223,14 +250,14 @@ public class RunestoneBlockEntity extends InertRunestoneBlockEntity {
                     this.obeliskCoreWidth = match.coreWidth();
                     this.obeliskCoreHeight = match.coreHeight();
                     this.levels.putAll(runes);
+                    this.structureDirty = false;
+                    this.cachedMatch = match;
+                    this.updateTrackedBounds(match.bounds());
                     Optional<Text> customName = match.names().stream().unordered().findAny();
                     if (this.recordUuid == null && runes.containsKey(RequiemBlocks.RIFT_RUNE)) {
                         // Clear leftover global records, should not be needed but uuuh bugs
-                        GlobalRecordKeeper.get(this.world).getRecords()
-                            .stream()
-                            .filter(r -> r.get(RequiemRecordTypes.OBELISK_REF)
-                                .map(ObeliskDescriptor::pos)
-                                .filter(this.pos::equals).isPresent())
+                        GlobalRecordKeeper.get(this.world)
+                            .getRecordsNear(RequiemRecordTypes.OBELISK_REF, this.world.getRegistryKey(), this.pos, 0)
                             .forEach(GlobalRecord::invalidate);
                         GlobalRecord record = GlobalRecordKeeper.get(this.world).createRecord();
                         record.put(RequiemRecordTypes.OBELISK_REF, new ObeliskDescriptor(
@@ -244,10 +271,38 @@ public class RunestoneBlockEntity extends InertRunestoneBlockEntity {
                         this.recordUuid = record.getUuid();
                     }
                 },
-                () -> this.world.createAndScheduleBlockTick(this.pos, state.getBlock(), 0)
+                () -> {
+                    this.powerMap = null;
+                    this.world.createAndScheduleBlockTick(this.pos, state.getBlock(), 0);
+                }
             );
     }
 
+    private void updateTrackedBounds(@Nullable BlockBox bounds) {
+        if (this.world == null) return;
+        ObeliskTracker tracker = ObeliskTracker.get(this.world);
+        if (this.trackedBounds != null) tracker.untrack(this, this.trackedBounds);
+        this.cachedBounds = bounds;
+        // The power map spreads further than the structure, but only needs to be kept up to date while the structure is valid
+        this.trackedBounds = bounds != null && this.powerMap != null ? encompass(bounds, this.powerMap.bounds(this.world)) : bounds;
+        if (this.trackedBounds != null) tracker.track(this, this.trackedBounds);
+    }
+
+    private static BlockBox encompass(BlockBox a, BlockBox b) {
+        return new BlockBox(
+            Math.min(a.getMinX(), b.getMinX()), Math.min(a.getMinY(), b.getMinY()), Math.min(a.getMinZ(), b.getMinZ()),
+            Math.max(a.getMaxX(), b.getMaxX()), Math.max(a.getMaxY(), b.getMaxY()), Math.max(a.getMaxZ(), b.getMaxZ())
+        );
+    }
+
+    @Override
+    public void markRemoved() {
+        super.markRemoved();
+        this.updateTrackedBounds(null);
+        this.structureDirty = true;
+        this.powerMap = null;
+    }
+
     private Optional<Text> generateName() {
         // TODO name generation
         return Optional.empty();
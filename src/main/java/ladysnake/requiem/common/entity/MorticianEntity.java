@@ -306,11 +306,9 @@ public class MorticianEntity extends MerchantEntity implements Angerable {
         super.tickMovement();
         if (this.world instanceof ServerWorld sw && this.hasInvalidLinkedObelisk()) {
             // Attempt to link to a new obelisk, otherwise despawn
-            MorticianSpawner.streamSpawnableObelisks(sw.getServer())
-                .filter(r -> r.get(RequiemRecordTypes.OBELISK_REF)
-                    .filter(obelisk -> obelisk.dimension() == this.world.getRegistryKey())
-                    .filter(obelisk -> obelisk.pos().isWithinDistance(this.getBlockPos(), MAX_LINK_DISTANCE))
-                    .isPresent())
+            GlobalRecordKeeper.get(sw).getRecordsNear(RequiemRecordTypes.OBELISK_REF, sw.getRegistryKey(), this.getBlockPos(), MAX_LINK_DISTANCE)
+                .filter(r -> r.get(RequiemRecordTypes.RIFT_OBELISK).isPresent())
+                .filter(r -> r.get(RequiemRecordTypes.MORTICIAN_REF).isEmpty())
                 .min(Comparator.comparing(r -> r.get(RequiemRecordTypes.OBELISK_REF).orElseThrow().pos().getSquaredDistance(this.getBlockPos())))
                 .ifPresentOrElse(
                     r -> {
@@ -63,7 +63,8 @@ public class MorticianSpawner implements ServerTickEvents.EndTick {
             --this.ticksUntilNextSpawn;
             if (this.ticksUntilNextSpawn <= 0) {
                 this.ticksUntilNextSpawn = SPAWN_COOLDOWN;
-                streamSpawnableObelisks(server)
+                // Collect first, as linking morticians updates the record indexes
+                streamSpawnableObelisks(server).toList()
                     .forEach(r -> r.get(RequiemRecordTypes.OBELISK_REF).ifPresent(obelisk -> {
                         ServerWorld world = server.getWorld(obelisk.dimension());
                         if (world == null || !world.isRegionLoaded(obelisk.pos().getX() - 10, obelisk.pos().getZ() - 10, obelisk.pos().getZ() + 10, obelisk.pos().getZ() + 10)) return;
@@ -82,9 +83,8 @@ public class MorticianSpawner implements ServerTickEvents.EndTick {
 
     public static Stream<GlobalRecord> streamSpawnableObelisks(MinecraftServer server) {
         return GlobalRecordKeeper.get(server)
-            .getRecords().stream()
             // Find all obelisks that have no mortician
-            .filter(r -> r.get(RequiemRecordTypes.RIFT_OBELISK).isPresent())
+            .getRecords(RequiemRecordTypes.RIFT_OBELISK)
             .filter(r -> r.get(RequiemRecordTypes.MORTICIAN_REF).isEmpty());
     }
 }
@@ -38,6 +38,7 @@ import baritone.api.IBaritone;
 import baritone.api.event.events.BlockInteractEvent;
 import baritone.api.event.events.PathEvent;
 import baritone.api.event.listener.IGameEventListener;
+import baritone.api.fakeplayer.AutomatoneFakePlayer;
 import baritone.api.fakeplayer.FakeServerPlayerEntity;
 import com.demonwav.mcdev.annotations.CheckEnv;
 import com.demonwav.mcdev.annotations.Env;
@@ -57,6 +58,7 @@ import net.minecraft.entity.ai.brain.MemoryModuleType;
 import net.minecraft.entity.ai.brain.sensor.Sensor;
 import net.minecraft.entity.ai.brain.sensor.SensorType;
 import net.minecraft.entity.attribute.DefaultAttributeContainer;
+import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
@@ -98,7 +100,21 @@ public class PlayerShellEntity extends FakeServerPlayerEntity {
         PandemoniumMemoryModules.GO_HOME_ATTEMPTS
     );
 
+    public static final int DEFAULT_DORMANCY_RANGE = 64;
+    private static final int DORMANCY_CHECK_INTERVAL = 20;
+
+    private static int dormancyRange = DEFAULT_DORMANCY_RANGE;
+
+    /**
+     * @param range the distance from the closest player beyond which shells stop ticking,
+     *              or {@code 0} to keep shells ticking regardless of nearby players
+     */
+    public static void setDormancyRange(int range) {
+        dormancyRange = range;
+    }
+
     private final ShellPathfindingProcess pathfindingProcess;
+    private boolean dormant;
 
     @CheckEnv(Env.SERVER)
     @API(status = MAINTAINED)
@@ -145,9 +161,57 @@ public class PlayerShellEntity extends FakeServerPlayerEntity {
         this.getBrain().remember(MemoryModuleType.HOME, home);
     }
 
-    public void storePlayerData(ServerPlayerEntity player, NbtCompound respawnNbt) {
+    /**
+     * Dormant shells skip their entity tick entirely until a player comes within {@linkplain #setDormancyRange(int) range},
+     * they get interacted with, or they get damaged.
+     */
+    public boolean isDormant() {
+        return this.dormant;
+    }
+
+    public void wakeUp() {
+        this.dormant = false;
+    }
+
+    @Override
+    public void tick() {
+        // spread checks across ticks, as there may be a lot of shells around
+        boolean check = (this.age + this.getId()) % DORMANCY_CHECK_INTERVAL == 0;
+
+        if (this.dormant) {
+            if (check && !this.canBeDormant()) {
+                this.wakeUp();
+            }
+            return;
+        }
+
+        super.tick();
+
+        if (check && this.canBeDormant()) {
+            this.dormant = true;
+        }
+    }
+
+    private boolean canBeDormant() {
+        // shells can only be frozen in a stable state, or they would hang mid-air or ignore fire
+        return dormancyRange > 0
+            && this.isOnGround()
+            && !this.hasVehicle()
+            && !this.isTouchingWater()
+            && !this.isOnFire()
+            && this.hurtTime == 0
+            && this.world.getClosestPlayer(this.getX(), this.getY(), this.getZ(), dormancyRange, e -> !(e instanceof AutomatoneFakePlayer) && !e.isSpectator()) == null;
+    }
+
+    @Override
+    public boolean damage(DamageSource source, float amount) {
+        this.wakeUp();
+        return super.damage(source, amount);
+    }
+
+    public void storePlayerData(ServerPlayerEntity player) {
         // Save the complete representation of the player
-        PlayerSplitter.performNbtCopy(respawnNbt, this);
+        PlayerSplitter.copyPlayerState(player, this);
 
         this.getDataTracker().set(PlayerEntity.PLAYER_MODEL_PARTS, player.getDataTracker().get(PlayerEntity.PLAYER_MODEL_PARTS));
 
@@ -200,6 +264,7 @@ public class PlayerShellEntity extends FakeServerPlayerEntity {
      */
     @Override
     public ActionResult interactAt(PlayerEntity player, Vec3d vec, Hand hand) {
+        this.wakeUp();
         ItemStack stack = player.getStackInHand(hand);
         if (stack.getItem() != Items.NAME_TAG) {
             if (!this.world.isClient && !player.isSpectator()) {
@@ -41,8 +41,11 @@ import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
 import ladysnake.requiem.common.RequiemRecordTypes;
 import ladysnake.requiem.common.particle.WispTrailParticleEffect;
 import ladysnake.requiem.common.sound.RequiemSoundEvents;
+import ladysnake.requiem.core.record.EntityHandle;
+import ladysnake.requiem.core.record.EntityPositionClerk;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.data.DataTracker;
 import net.minecraft.entity.data.TrackedData;
 import net.minecraft.entity.data.TrackedDataHandlerRegistry;
@@ -70,6 +73,8 @@ public class ReleasedSoulEntity extends SoulEntity {
 
     public static final TrackedData<Byte> BODY_STATUS = DataTracker.registerData(ReleasedSoulEntity.class, TrackedDataHandlerRegistry.BYTE);
     private @Nullable UUID ownerRecord;
+    private @Nullable GlobalRecord cachedRecord;
+    private final EntityHandle owner = new EntityHandle(RequiemRecordTypes.SOUL_OWNER_REF);
 
     public ReleasedSoulEntity(EntityType<? extends ReleasedSoulEntity> type, World world) {
         this(type, world, null);
@@ -91,24 +96,28 @@ public class ReleasedSoulEntity extends SoulEntity {
     @Override
     public void tick() {
         if (!this.world.isClient()) {
-            this.setBodyStatus(
-                this.getTarget()
-                    .map(ptr -> ptr.resolve(((ServerWorld) this.world).getServer())
-                        .filter(e -> e.world == this.world)
-                        .filter(e -> e.distanceTo(this) < 100)
-                        .isPresent() ? BODY_FOUND : BODY_ISEKAI)
-                    .orElse(BODY_MISSING)
-            );
+            GlobalRecord record = this.getRecord().orElse(null);
+            Entity body = record == null ? null : this.owner.get(record, ((ServerWorld) this.world).getServer());
+            boolean bodyFound = body != null && body.world == this.world && body.distanceTo(this) < 100;
+            if (bodyFound) {
+                this.setBodyStatus(BODY_FOUND);
+            } else if (record != null && record.get(RequiemRecordTypes.SOUL_OWNER_REF).isPresent()) {
+                this.setBodyStatus(BODY_ISEKAI);
+            } else {
+                this.setBodyStatus(BODY_MISSING);
+            }
 
-            if (this.getBodyStatus() != BODY_FOUND) {
+            if (!bodyFound) {
                 this.setMaxAge(60);
             } else {
                 this.setMaxAge(-1);
-                this.getCollidingBody().ifPresent(body -> {
+                if (body.getBoundingBox().intersects(this.getBoundingBox())) {
                     this.world.sendEntityStatus(this, SOUL_EXPIRED_STATUS);
-                    this.getRecord().orElseThrow().put(RequiemRecordTypes.RELEASED_SOUL, Unit.INSTANCE);
+                    record.put(RequiemRecordTypes.RELEASED_SOUL, Unit.INSTANCE);
+                    // Linked records are not polled every tick, notify the body right away
+                    if (body instanceof LivingEntity livingBody) EntityPositionClerk.get(livingBody).flush();
                     this.discard();
-                });
+                }
             }
         }
         super.tick();
@@ -133,12 +142,6 @@ public class ReleasedSoulEntity extends SoulEntity {
         this.discard();
     }
 
-    private Optional<Entity> getCollidingBody() {
-        return this.getTarget()
-            .flatMap(ptr -> ptr.resolve(((ServerWorld)this.world).getServer()))
-            .filter(e -> e.getBoundingBox().intersects(this.getBoundingBox()));
-    }
-
     private void setBodyStatus(byte value) {
         this.getDataTracker().set(BODY_STATUS, value);
     }
@@ -152,8 +155,13 @@ public class ReleasedSoulEntity extends SoulEntity {
     }
 
     private Optional<GlobalRecord> getRecord() {
-        return Optional.ofNullable(ownerRecord)
-            .flatMap(GlobalRecordKeeper.get(this.world)::getRecord);
+        GlobalRecord record = this.cachedRecord;
+        // records only leave the keeper once they get invalidated
+        if (record == null || record.isInvalid()) {
+            record = Optional.ofNullable(ownerRecord).flatMap(GlobalRecordKeeper.get(this.world)::getRecord).orElse(null);
+            this.cachedRecord = record;
+        }
+        return Optional.ofNullable(record);
     }
 
     @Override
@@ -210,6 +218,7 @@ public class ReleasedSoulEntity extends SoulEntity {
         super.readCustomDataFromNbt(nbt);
         if (nbt.containsUuid("owner_record")) {
             this.ownerRecord = nbt.getUuid("owner_record");
+            this.cachedRecord = null;
         }
     }
 
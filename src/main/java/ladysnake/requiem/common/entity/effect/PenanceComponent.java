@@ -45,6 +45,7 @@ import ladysnake.requiem.Requiem;
 import ladysnake.requiem.api.v1.remnant.RemnantComponent;
 import ladysnake.requiem.client.RequiemClient;
 import ladysnake.requiem.common.network.RequiemNetworking;
+import ladysnake.requiem.core.util.DeferredComponentSync;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
@@ -61,6 +62,10 @@ public final class PenanceComponent implements ServerTickingComponent, ClientTic
 
     public static final int PENANCE_WARNING_TIME = 30 * 20;
     public static final int PENANCE_FLASH_INTENSITY = 5;
+    /**
+     * Clients count penance time on their own, this is how often the server corrects them
+     */
+    private static final int PENANCE_RESYNC_INTERVAL = 20;
 
     private final PlayerEntity owner;
     private int timeWithPenance = -1;
@@ -83,6 +88,9 @@ public final class PenanceComponent implements ServerTickingComponent, ClientTic
 
     @Override
     public void clientTick() {
+        if (this.timeWithPenance >= 0 && this.timeWithPenance < PENANCE_WARNING_TIME) {
+            this.timeWithPenance++;
+        }
         this.lastPenanceStrength = this.nextPenanceStrength;
         if (RemnantComponent.isIncorporeal(this.owner) && this.owner.hasStatusEffect(RequiemStatusEffects.PENANCE)) {
             this.nextPenanceStrength = 0.4f;
@@ -99,7 +107,7 @@ public final class PenanceComponent implements ServerTickingComponent, ClientTic
             updatePenance(penance.getAmplifier());
         } else if (this.timeWithPenance >= 0) {
             this.timeWithPenance = -1;
-            KEY.sync(this.owner);
+            DeferredComponentSync.markDirty(KEY, this.owner);
         }
     }
 
@@ -128,11 +136,12 @@ public final class PenanceComponent implements ServerTickingComponent, ClientTic
             soul = null;
         }
 
-        // if we sync here right after the player has respawned,
+        // if we sync right after the player has respawned,
         // we will sync the old value to the new player, causing a desync
         // (connections are still functional after the player got removed)
-        if (!this.owner.isRemoved()) {
-            KEY.sync(this.owner);
+        // deferred syncs skip removed players
+        if (this.timeWithPenance <= 1 || this.timeWithPenance == PENANCE_WARNING_TIME || this.timeWithPenance % PENANCE_RESYNC_INTERVAL == 0) {
+            DeferredComponentSync.markDirty(KEY, this.owner);
         }
 
         return soul;
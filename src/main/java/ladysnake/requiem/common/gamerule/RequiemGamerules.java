@@ -35,6 +35,10 @@
 package ladysnake.requiem.common.gamerule;
 
 import ladysnake.requiem.Requiem;
+import ladysnake.requiem.common.entity.PlayerShellEntity;
+import ladysnake.requiem.core.record.EntityPositionClerk;
+import ladysnake.requiem.core.util.DetectionScheduler;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.gamerule.v1.GameRuleFactory;
 import net.fabricmc.fabric.api.gamerule.v1.GameRuleRegistry;
 import net.fabricmc.fabric.api.gamerule.v1.rule.EnumRule;
@@ -51,9 +55,19 @@ public class RequiemGamerules {
         register("possessionKeepInventory", GameRuleFactory.createEnumRule(PossessionKeepInventory.NEVER), GameRules.Category.PLAYER);
     public static final GameRules.Key<EnumRule<PossessionDetection>> POSSESSION_DETECTION =
         register("possessionDetection", GameRuleFactory.createEnumRule(PossessionDetection.NORMAL), GameRules.Category.MOBS);
+    public static final GameRules.Key<GameRules.IntRule> DETECTION_RAYCAST_BUDGET =
+        register("detectionRaycastBudget", GameRuleFactory.createIntRule(DetectionScheduler.DEFAULT_RAYCAST_BUDGET, 0, (server, rule) -> DetectionScheduler.setRaycastBudget(rule.get())), GameRules.Category.MOBS);
+    public static final GameRules.Key<GameRules.IntRule> SHELL_DORMANCY_RANGE =
+        register("shellDormancyRange", GameRuleFactory.createIntRule(PlayerShellEntity.DEFAULT_DORMANCY_RANGE, 0, (server, rule) -> PlayerShellEntity.setDormancyRange(rule.get())), GameRules.Category.UPDATES);
+    public static final GameRules.Key<GameRules.IntRule> ENTITY_RECORD_DRIFT_INTERVAL =
+        register("entityRecordDriftInterval", GameRuleFactory.createIntRule(EntityPositionClerk.DEFAULT_DRIFT_INTERVAL, 0, (server, rule) -> EntityPositionClerk.setDriftInterval(rule.get())), GameRules.Category.UPDATES);
 
     public static void init() {
-        // static init
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            EntityPositionClerk.setDriftInterval(server.getGameRules().getInt(ENTITY_RECORD_DRIFT_INTERVAL));
+            DetectionScheduler.setRaycastBudget(server.getGameRules().getInt(DETECTION_RAYCAST_BUDGET));
+            PlayerShellEntity.setDormancyRange(server.getGameRules().getInt(SHELL_DORMANCY_RANGE));
+        });
     }
 
     private static <T extends GameRules.Rule<T>> GameRules.Key<T> register(String name, GameRules.Type<T> type, GameRules.Category category) {
@@ -0,0 +1,117 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.common.network;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBufUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.util.SubDataManager;
+import ladysnake.requiem.api.v1.util.SubDataManagerHelper;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches the encoded {@link SubDataManager} payload sent to every player, until the next datapack reload.
+ *
+ * <p>The payload is identified by a hash of its contents, which clients use to check whether
+ * they already hold the same data from a previous session on the same server.
+ *
+ * <p>The cache gets invalidated right before the reload broadcast, once every {@link SubDataManager} has applied its new data,
+ * so that payloads encoded while the reload was in progress never get sent.
+ */
+public final class DataSyncCache {
+    private static volatile @Nullable Payload cached;
+    /**Hash of the last payload sent to each player that requested it, only accessed from the server thread*/
+    private static final Map<UUID, HashCode> answeredRequests = new HashMap<>();
+
+    public static void init() {
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> answeredRequests.remove(handler.player.getUuid()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            invalidate();
+            answeredRequests.clear();
+        });
+    }
+
+    public static void invalidate() {
+        cached = null;
+    }
+
+    /**
+     * Records that {@code player} requested the given payload. Clients only need each version of the data once,
+     * so a player that already received this payload should not get it again.
+     *
+     * @return {@code true} if the payload should be sent to the player, {@code false} if it already was
+     */
+    public static boolean markRequested(ServerPlayerEntity player, Payload payload) {
+        return !payload.hash().equals(answeredRequests.put(player.getUuid(), payload.hash()));
+    }
+
+    public static Payload get(SubDataManagerHelper helper) {
+        Payload payload = cached;
+        if (payload == null) {
+            payload = encode(helper);
+            cached = payload;
+        }
+        return payload;
+    }
+
+    private static Payload encode(SubDataManagerHelper helper) {
+        PacketByteBuf buf = RequiemNetworking.createEmptyBuffer();
+        List<SubDataManager<?>> managers = helper.streamDataManagers().toList();
+        buf.writeVarInt(managers.size());
+        for (SubDataManager<?> manager : managers) {
+            Requiem.LOGGER.debug("[Requiem] Encoding data for {} ({})", manager.getFabricId(), manager);
+            buf.writeIdentifier(manager.getFabricId());
+            manager.toPacket(buf);
+        }
+        byte[] data = ByteBufUtil.getBytes(buf);
+        return new Payload(Hashing.sha256().hashBytes(data), data);
+    }
+
+    /**
+     * @param hash a hash of {@code data}
+     * @param data the encoded data of every {@link SubDataManager}, must not be modified
+     */
+    public record Payload(HashCode hash, byte[] data) { }
+}
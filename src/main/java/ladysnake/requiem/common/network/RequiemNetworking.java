@@ -34,10 +34,10 @@
  */
 package ladysnake.requiem.common.network;
 
+import io.netty.buffer.Unpooled;
 import ladysnake.requiem.Requiem;
 import ladysnake.requiem.api.v1.entity.ability.AbilityType;
 import ladysnake.requiem.api.v1.remnant.RemnantType;
-import ladysnake.requiem.api.v1.util.SubDataManager;
 import ladysnake.requiem.api.v1.util.SubDataManagerHelper;
 import ladysnake.requiem.common.remnant.RemnantTypes;
 import ladysnake.requiem.common.util.ObeliskDescriptor;
@@ -54,19 +54,19 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.Contract;
 
-import java.util.List;
-
 import static io.netty.buffer.Unpooled.buffer;
 
 public final class RequiemNetworking {
     // Server -> Client
     public static final Identifier ANCHOR_DAMAGE = Requiem.id("anchor_damage");
     public static final Identifier DATA_SYNC = Requiem.id("data_sync");
+    public static final Identifier DATA_SYNC_OFFER = Requiem.id("data_sync_offer");
     public static final Identifier OPUS_USE = Requiem.id("opus_use");
     public static final Identifier ETHEREAL_ANIMATION = Requiem.id("ethereal_animation");
     public static final Identifier BODY_CURE = Requiem.id("body_cure");
 
     // Client -> Server
+    public static final Identifier DATA_SYNC_REQUEST = Requiem.id("data_sync_request");
     public static final Identifier DIALOGUE_ACTION = Requiem.id("dialogue_action");
     public static final Identifier ETHEREAL_FRACTURE = Requiem.id("ethereal_fracture");
     public static final Identifier OPEN_CRAFTING_MENU = Requiem.id("open_crafting");
@@ -104,16 +104,24 @@ public final class RequiemNetworking {
         return new CustomPayloadS2CPacket(id, createEmptyBuffer());
     }
 
-    public static CustomPayloadS2CPacket createDataSyncMessage(SubDataManagerHelper helper) {
+    /**
+     * Creates a message announcing the hash of the current data, to which clients reply with
+     * a {@link #DATA_SYNC_REQUEST} if they do not have that data cached already.
+     */
+    public static CustomPayloadS2CPacket createDataSyncOfferMessage(SubDataManagerHelper helper) {
         PacketByteBuf buf = createEmptyBuffer();
-        List<SubDataManager<?>> managers = helper.streamDataManagers().toList();
-        buf.writeVarInt(managers.size());
-        for (SubDataManager<?> manager : managers) {
-            Requiem.LOGGER.info("[Requiem] Synchronizing data for {} ({})", manager.getFabricId(), manager);
-            buf.writeIdentifier(manager.getFabricId());
-            manager.toPacket(buf);
-        }
-        return new CustomPayloadS2CPacket(DATA_SYNC, buf);
+        buf.writeByteArray(DataSyncCache.get(helper).hash().asBytes());
+        return new CustomPayloadS2CPacket(DATA_SYNC_OFFER, buf);
+    }
+
+    public static CustomPayloadS2CPacket createDataSyncMessage(SubDataManagerHelper helper) {
+        DataSyncCache.Payload payload = DataSyncCache.get(helper);
+        Requiem.LOGGER.debug("[Requiem] Synchronizing data {}", payload.hash());
+        byte[] hash = payload.hash().asBytes();
+        PacketByteBuf header = createEmptyBuffer();
+        header.writeByteArray(hash);
+        // The encoded data is shared between every recipient
+        return new CustomPayloadS2CPacket(DATA_SYNC, new PacketByteBuf(Unpooled.wrappedBuffer(header, Unpooled.wrappedBuffer(payload.data()))));
     }
 
     @Contract(pure = true)
@@ -39,10 +39,13 @@ import ladysnake.requiem.api.v1.entity.ability.AbilityType;
 import ladysnake.requiem.api.v1.entity.ability.MobAbilityController;
 import ladysnake.requiem.api.v1.event.requiem.InitiateFractureCallback;
 import ladysnake.requiem.api.v1.possession.PossessionComponent;
+import ladysnake.requiem.api.v1.util.SubDataManagerHelper;
 import ladysnake.requiem.common.screen.RiftScreenHandler;
 import ladysnake.requiem.common.tag.RequiemEntityTypeTags;
 import ladysnake.requiem.common.util.ObeliskDescriptor;
 import ladysnake.requiem.core.RequiemCoreNetworking;
+import ladysnake.requiem.core.movement.PlayerMovementAlterer;
+import ladysnake.requiem.core.util.DeferredComponentSync;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.block.Blocks;
 import net.minecraft.entity.Entity;
@@ -66,9 +69,15 @@ public final class ServerMessageHandling {
                 }
 
                 // sync abilities in case the server disagrees with the client's guess
-                MobAbilityController.KEY.sync(player);
+                DeferredComponentSync.markDirty(MobAbilityController.KEY, player);
             });
         });
+        ServerPlayNetworking.registerGlobalReceiver(DATA_SYNC_REQUEST, (server, player, handler, buf, responseSender) -> server.execute(() -> {
+            // Drop repeated requests, the payload can be large
+            if (DataSyncCache.markRequested(player, DataSyncCache.get(SubDataManagerHelper.getServerHelper()))) {
+                sendTo(player, createDataSyncMessage(SubDataManagerHelper.getServerHelper()));
+            }
+        }));
         ServerPlayNetworking.registerGlobalReceiver(USE_INDIRECT_ABILITY, (server, player, handler, buf, responseSender) -> {
             AbilityType type = buf.readEnumConstant(AbilityType.class);
             server.execute(() -> MobAbilityController.get(player).useIndirect(type));
@@ -77,9 +86,13 @@ public final class ServerMessageHandling {
             InitiateFractureCallback.EVENT.invoker().performFracture(player)));
         ServerPlayNetworking.registerGlobalReceiver(RequiemCoreNetworking.HUGGING_WALL, (server, player, handler, buf, responseSender) -> {
             boolean yes = buf.readBoolean();
+            int sequence = buf.readVarInt();
             // Possible failure points: the player may not actually be against a block, or it may not have the right movement
             // we do not handle those right now, as movement is entirely done clientside
-            server.execute(() -> MovementAlterer.get(player).hugWall(yes));
+            // The latest state gets picked up on the next tick, so no task needs to be scheduled for each message
+            if (MovementAlterer.get(player) instanceof PlayerMovementAlterer movementAlterer) {
+                movementAlterer.receiveHugWallMessage(yes, sequence);
+            }
         });
         ServerPlayNetworking.registerGlobalReceiver(OPEN_CRAFTING_MENU, (server, player, handler, buf, responseSender) -> server.execute(() -> {
             MobEntity possessed = PossessionComponent.get(player).getHost();
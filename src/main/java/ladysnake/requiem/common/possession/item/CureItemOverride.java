@@ -87,6 +87,11 @@ public class CureItemOverride implements PossessionItemOverride, InstancedItemOv
         return VanillaRequiemPlugin.cure(user, possessedEntity, heldStack, world, activeHand);
     }
 
+    @Override
+    public LazyItemPredicate getItemFilter() {
+        return this.reagent;
+    }
+
     @Override
     public void initNow() {
         this.possessedState.initNow();
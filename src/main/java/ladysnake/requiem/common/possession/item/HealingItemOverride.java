@@ -69,6 +69,11 @@ public record HealingItemOverride(
         ).apply(instance, HealingItemOverride::new));
     }
 
+    @Override
+    public LazyItemPredicate getItemFilter() {
+        return this.item;
+    }
+
     @Override
     public void initNow() {
         this.item.initNow();
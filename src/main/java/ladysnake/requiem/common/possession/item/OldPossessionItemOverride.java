@@ -69,6 +69,11 @@ public record OldPossessionItemOverride(
         ).apply(instance, OldPossessionItemOverride::new));
     }
 
+    @Override
+    public LazyItemPredicate getItemFilter() {
+        return this.requirements.usedItem;
+    }
+
     /**
      * Initializes this object's lazy fields
      */
@@ -118,7 +123,7 @@ public record OldPossessionItemOverride(
         }
 
         final LazyEntityPredicate possessed;
-        private final LazyItemPredicate usedItem;
+        final LazyItemPredicate usedItem;
         private final Optional<Boolean> canEat;
 
         public Requirements(LazyEntityPredicate possessed, LazyItemPredicate usedItem, Optional<Boolean> canEat) {
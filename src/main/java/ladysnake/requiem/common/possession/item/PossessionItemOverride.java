@@ -34,6 +34,7 @@
  */
 package ladysnake.requiem.common.possession.item;
 
+import ladysnake.requiem.core.data.LazyItemPredicate;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
@@ -48,4 +49,11 @@ public interface PossessionItemOverride {
     Identifier getType();
 
     Optional<InstancedItemOverride> test(PlayerEntity player, MobEntity possessed, ItemStack stack);
+
+    /**
+     * @return a predicate matching every stack for which {@link #test(PlayerEntity, MobEntity, ItemStack)} can succeed
+     */
+    default LazyItemPredicate getItemFilter() {
+        return LazyItemPredicate.ANY;
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.common.possession.item;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import ladysnake.requiem.common.RequiemRegistries;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tag.TagKey;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * An index of {@link PossessionItemOverrideWrapper}s, sorted by priority and bucketed by the items and entity types they can match.
+ *
+ * <p>Overrides are narrowed using the {@code type} field of their mob predicate and the {@code items} or {@code tag} fields
+ * of their {@linkplain PossessionItemOverride#getItemFilter() item filter}.
+ * Overrides that cannot be narrowed go into catch-all buckets. Tags are resolved on lookup, so that tag reloads apply immediately.
+ *
+ * <p>A new index gets built for every instance of the override registry, that is every time data packs get loaded.
+ */
+public final class PossessionItemOverrideIndex {
+    private static final Map<Registry<PossessionItemOverrideWrapper>, PossessionItemOverrideIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static PossessionItemOverrideIndex get(World world) {
+        return INDEXES.computeIfAbsent(
+            world.getRegistryManager().get(RequiemRegistries.MOB_ITEM_OVERRIDE_KEY),
+            registry -> new PossessionItemOverrideIndex(registry.stream().sorted().toList())
+        );
+    }
+
+    private final List<PossessionItemOverrideWrapper> overrides;
+    private final Bucket<Item> itemBucket = new Bucket<>(Registry.ITEM);
+    private final Bucket<EntityType<?>> mobBucket = new Bucket<>(Registry.ENTITY_TYPE);
+
+    /**
+     * @param sortedOverrides every override to index, in the order in which they should be tested
+     */
+    public PossessionItemOverrideIndex(List<PossessionItemOverrideWrapper> sortedOverrides) {
+        this.overrides = List.copyOf(sortedOverrides);
+        for (int i = 0; i < this.overrides.size(); i++) {
+            PossessionItemOverrideWrapper wrapper = this.overrides.get(i);
+            if (!wrapper.enabled()) continue;   // never going to match anything anyway
+            JsonElement itemJson = wrapper.override().getItemFilter().getJson();
+            this.itemBucket.add(i, itemJson, "items", "tag");
+            this.mobBucket.add(i, wrapper.mob().getJson(), "type", "type");
+        }
+    }
+
+    public Optional<InstancedItemOverride> findOverride(PlayerEntity player, MobEntity possessedEntity, ItemStack heldStack) {
+        Optional<InstancedItemOverride> fallback = Optional.empty();
+        BitSet candidates = this.getCandidates(possessedEntity, heldStack);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Optional<InstancedItemOverride> tested = this.overrides.get(i).test(player, possessedEntity, heldStack);
+            if (tested.isPresent()) {
+                if (tested.get().shortCircuits()) {
+                    return tested;
+                } else if (fallback.isEmpty()) {
+                    fallback = tested;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    public List<Text> buildTooltip(PlayerEntity player, MobEntity possessedEntity, ItemStack heldStack) {
+        List<Text> lines = new ArrayList<>();
+        BitSet candidates = this.getCandidates(possessedEntity, heldStack);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            PossessionItemOverrideWrapper wrapper = this.overrides.get(i);
+            Optional<InstancedItemOverride> tested = wrapper.test(player, possessedEntity, heldStack);
+            if (tested.isPresent()) {
+                InstancedItemOverride override = tested.get();
+                if (override.shortCircuits()) {
+                    return wrapper.tooltip().flatMap(override::tweakTooltip).map(Collections::singletonList).orElse(Collections.emptyList());
+                } else {
+                    wrapper.tooltip().flatMap(override::tweakTooltip).ifPresent(lines::add);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private BitSet getCandidates(MobEntity possessedEntity, ItemStack heldStack) {
+        BitSet candidates = this.itemBucket.getCandidates(heldStack.getItem(), heldStack::isIn);
+        candidates.and(this.mobBucket.getCandidates(possessedEntity.getType(), possessedEntity.getType()::isIn));
+        return candidates;
+    }
+
+    private static final class Bucket<T> {
+        private final Registry<T> registry;
+        private final BitSet any = new BitSet();
+        private final Map<T, BitSet> byValue = new Reference2ObjectOpenHashMap<>();
+        private final Map<TagKey<T>, BitSet> byTag = new HashMap<>();
+
+        Bucket(Registry<T> registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * Adds an override to this bucket, based on the JSON of one of its predicates
+         *
+         * @param valuesField the name of a field holding either a single value or a list of values
+         * @param tagField    the name of a field holding a tag, which may also be a {@code #}-prefixed value in {@code valuesField}
+         */
+        void add(int index, @Nullable JsonElement predicateJson, String valuesField, String tagField) {
+            if (predicateJson instanceof JsonObject json) {
+                List<T> values = this.parseValues(json.get(valuesField));
+                if (!values.isEmpty()) {
+                    values.forEach(value -> this.byValue.computeIfAbsent(value, v -> new BitSet()).set(index));
+                    return;
+                }
+                // When values and tags share a field, tags are told apart by a # prefix
+                TagKey<T> tag = this.parseTag(json.get(tagField), valuesField.equals(tagField));
+                if (tag != null) {
+                    this.byTag.computeIfAbsent(tag, t -> new BitSet()).set(index);
+                    return;
+                }
+            }
+            this.any.set(index);
+        }
+
+        private List<T> parseValues(@Nullable JsonElement valuesJson) {
+            List<T> values = new ArrayList<>();
+            if (valuesJson instanceof JsonPrimitive primitive) {
+                this.parseValue(primitive.getAsString()).ifPresent(values::add);
+            } else if (valuesJson != null && valuesJson.isJsonArray()) {
+                for (JsonElement element : valuesJson.getAsJsonArray()) {
+                    if (!JsonHelper.isString(element)) return List.of();
+                    Optional<T> value = this.parseValue(element.getAsString());
+                    // Cannot narrow down this predicate if we do not know every value
+                    if (value.isEmpty()) return List.of();
+                    values.add(value.get());
+                }
+            }
+            return values;
+        }
+
+        private Optional<T> parseValue(String id) {
+            if (id.startsWith("#")) return Optional.empty();
+            return Optional.ofNullable(Identifier.tryParse(id)).flatMap(this.registry::getOrEmpty);
+        }
+
+        private @Nullable TagKey<T> parseTag(@Nullable JsonElement tagJson, boolean prefixed) {
+            if (tagJson == null || !JsonHelper.isString(tagJson)) return null;
+            String tagId = tagJson.getAsString();
+            if (prefixed) {
+                if (!tagId.startsWith("#")) return null;
+                tagId = tagId.substring(1);
+            }
+            Identifier id = Identifier.tryParse(tagId);
+            return id == null ? null : TagKey.of(this.registry.getKey(), id);
+        }
+
+        BitSet getCandidates(T value, Predicate<TagKey<T>> isIn) {
+            BitSet candidates = (BitSet) this.any.clone();
+            BitSet exact = this.byValue.get(value);
+            if (exact != null) candidates.or(exact);
+            for (Map.Entry<TagKey<T>, BitSet> tagged : this.byTag.entrySet()) {
+                if (isIn.test(tagged.getKey())) {
+                    candidates.or(tagged.getValue());
+                }
+            }
+            return candidates;
+        }
+    }
+}
@@ -38,7 +38,6 @@ import com.google.gson.JsonElement;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import ladysnake.requiem.api.v1.possession.PossessionComponent;
-import ladysnake.requiem.common.RequiemRegistries;
 import ladysnake.requiem.core.data.LazyEntityPredicate;
 import ladysnake.requiem.core.util.serde.MoreCodecs;
 import ladysnake.requiem.core.util.serde.PolymorphicCodecBuilder;
@@ -53,12 +52,9 @@ import net.minecraft.util.TypedActionResult;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public record PossessionItemOverrideWrapper(
     int priority,
@@ -137,34 +133,11 @@ public record PossessionItemOverrideWrapper(
     }
 
     public static Optional<InstancedItemOverride> findOverride(World world, PlayerEntity player, MobEntity possessedEntity, ItemStack heldStack) {
-        Optional<InstancedItemOverride> fallback = Optional.empty();
-        for (PossessionItemOverrideWrapper wrapper : world.getRegistryManager().get(RequiemRegistries.MOB_ITEM_OVERRIDE_KEY).stream().sorted().collect(Collectors.toList())) {
-            Optional<InstancedItemOverride> tested = wrapper.test(player, possessedEntity, heldStack);
-            if (tested.isPresent()) {
-                if (tested.get().shortCircuits()) {
-                    return tested;
-                } else if (fallback.isEmpty()) {
-                    fallback = tested;
-                }
-            }
-        }
-        return fallback;
+        return PossessionItemOverrideIndex.get(world).findOverride(player, possessedEntity, heldStack);
     }
 
     public static List<Text> buildTooltip(World world, PlayerEntity player, MobEntity possessedEntity, ItemStack heldStack) {
-        List<Text> lines = new ArrayList<>();
-        for (PossessionItemOverrideWrapper wrapper : world.getRegistryManager().get(RequiemRegistries.MOB_ITEM_OVERRIDE_KEY).stream().sorted().collect(Collectors.toList())) {
-            Optional<InstancedItemOverride> tested = wrapper.test(player, possessedEntity, heldStack);
-            if (tested.isPresent()) {
-                InstancedItemOverride override = tested.get();
-                if (override.shortCircuits()) {
-                    return wrapper.tooltip.flatMap(override::tweakTooltip).map(Collections::singletonList).orElse(Collections.emptyList());
-                } else {
-                    wrapper.tooltip.flatMap(override::tweakTooltip).ifPresent(lines::add);
-                }
-            }
-        }
-        return lines;
+        return PossessionItemOverrideIndex.get(world).buildTooltip(player, possessedEntity, heldStack);
     }
 
     public Optional<InstancedItemOverride> test(PlayerEntity player, MobEntity host, ItemStack stack) {
@@ -42,6 +42,7 @@ import ladysnake.requiem.api.v1.record.GlobalRecord;
 import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
 import ladysnake.requiem.common.RequiemRecordTypes;
 import ladysnake.requiem.common.network.RequiemNetworking;
+import ladysnake.requiem.core.record.EntityHandle;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
@@ -63,6 +64,8 @@ public final class PlayerBodyTracker implements ServerTickingComponent {
     @Nullable
     private UUID anchorUuid;
     private float previousAnchorHealth = -1;
+    private @Nullable GlobalRecord anchor;
+    private final EntityHandle body = new EntityHandle(RequiemRecordTypes.BODY_REF);
 
     public PlayerBodyTracker(PlayerEntity player) {
         this.player = player;
@@ -80,10 +83,17 @@ public final class PlayerBodyTracker implements ServerTickingComponent {
 
     public void setAnchor(GlobalRecord anchor) {
         this.anchorUuid = anchor.getUuid();
+        this.anchor = null;
     }
 
     public Optional<GlobalRecord> getAnchor() {
-        return Optional.ofNullable(this.anchorUuid).flatMap(GlobalRecordKeeper.get(this.player.world)::getRecord);
+        GlobalRecord anchor = this.anchor;
+        // records only leave the keeper once they get invalidated
+        if (anchor == null || anchor.isInvalid()) {
+            anchor = Optional.ofNullable(this.anchorUuid).flatMap(GlobalRecordKeeper.get(this.player.world)::getRecord).orElse(null);
+            this.anchor = anchor;
+        }
+        return Optional.ofNullable(anchor);
     }
 
     @Override
@@ -97,12 +107,13 @@ public final class PlayerBodyTracker implements ServerTickingComponent {
     public void readFromNbt(@Nonnull NbtCompound tag) {
         if (tag.containsUuid("AnchorUuid")) {
             this.anchorUuid = tag.getUuid("AnchorUuid");
+            this.anchor = null;
         }
     }
 
     private void updateBodyHealth(GlobalRecord anchor) {
         ServerPlayerEntity player = (ServerPlayerEntity) this.player;
-        if (anchor.get(RequiemRecordTypes.BODY_REF).flatMap(ptr -> ptr.resolve(player.server)).orElse(null) instanceof LivingEntity anchorEntity) {
+        if (this.body.get(anchor, player.server) instanceof LivingEntity anchorEntity) {
             float health = anchorEntity.getHealth();
             if (health < this.previousAnchorHealth) {
                 RequiemNetworking.sendAnchorDamageMessage(player, false);
@@ -35,7 +35,9 @@
 package ladysnake.requiem.common.remnant;
 
 import com.mojang.authlib.GameProfile;
+import dev.onyxstudios.cca.api.v3.component.Component;
 import dev.onyxstudios.cca.api.v3.component.ComponentKey;
+import dev.onyxstudios.cca.api.v3.component.CopyableComponent;
 import dev.onyxstudios.cca.api.v3.entity.RespawnCopyStrategy;
 import dev.onyxstudios.cca.internal.base.AbstractComponentContainer;
 import io.github.ladysnake.impersonate.Impersonator;
@@ -51,8 +53,12 @@ import ladysnake.requiem.common.entity.PlayerShellEntity;
 import ladysnake.requiem.common.entity.RequiemEntities;
 import ladysnake.requiem.core.RequiemCore;
 import ladysnake.requiem.core.record.EntityPositionClerk;
+import ladysnake.requiem.mixin.common.access.PlayerEntityAccessor;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.network.packet.s2c.play.EntityTrackerUpdateS2CPacket;
 import net.minecraft.network.packet.s2c.play.PlayerPositionLookS2CPacket;
@@ -71,6 +77,24 @@ import java.util.Set;
 
 public final class PlayerSplitter {
     public static final Identifier BODY_IMPERSONATION = RequiemCore.id("body_impersonation");
+    /**Keys of player NBT that are either copied directly, or must not go through the split at all*/
+    private static final Set<String> KNOWN_NBT_KEYS = Set.of(
+        // Entity
+        "Pos", "Motion", "Rotation", "FallDistance", "Fire", "Air", "OnGround", "Invulnerable", "PortalCooldown", "UUID",
+        "CustomName", "CustomNameVisible", "Silent", "NoGravity", "Glowing", "TicksFrozen", "HasVisualFire", "Tags", "Passengers",
+        // LivingEntity
+        "Health", "HurtTime", "HurtByTimestamp", "DeathTime", "AbsorptionAmount", "Attributes", "ActiveEffects", "FallFlying",
+        "SleepingX", "SleepingY", "SleepingZ", "Brain",
+        // PlayerEntity
+        "DataVersion", "Inventory", "SelectedItemSlot", "SleepTimer", "XpP", "XpLevel", "XpTotal", "XpSeed", "Score",
+        "foodLevel", "foodTickTimer", "foodSaturationLevel", "foodExhaustionLevel", "abilities", "EnderItems",
+        "ShoulderEntityLeft", "ShoulderEntityRight",
+        // ServerPlayerEntity
+        "playerGameType", "previousPlayerGameType", "seenCredits", "enteredNetherPosition", "RootVehicle", "recipeBook",
+        "Dimension", "SpawnX", "SpawnY", "SpawnZ", "SpawnForced", "SpawnAngle", "SpawnDimension",
+        // Components get copied one by one
+        AbstractComponentContainer.NBT_KEY
+    );
 
     /**
      * @see RemnantComponent#splitPlayer(boolean)
@@ -94,8 +118,8 @@ public final class PlayerSplitter {
 
     public static PlayerShellEntity createShell(ServerPlayerEntity whole) {
         PlayerShellEntity shell = new PlayerShellEntity(RequiemEntities.PLAYER_SHELL, whole.getWorld());
-        shell.changeGameMode(whole.interactionManager.getGameMode());  // use same gamemode for deserialization
-        shell.storePlayerData(whole, computeCopyNbt(whole));
+        shell.changeGameMode(whole.interactionManager.getGameMode());  // use same gamemode while copying data
+        shell.storePlayerData(whole);
         shell.headYaw = whole.headYaw;
         shell.bodyYaw = whole.bodyYaw;
         GameMode shellGm = whole.interactionManager.isSurvivalLike() ? whole.interactionManager.getGameMode() : GameMode.SURVIVAL;
@@ -120,7 +144,7 @@ public final class PlayerSplitter {
         // Note: the teleport request must be before deserialization, as it only encodes the required relative movement
         soul.networkHandler.requestTeleport(shell.getX(), shell.getY(), shell.getZ(), shell.getYaw(), shell.getPitch(), EnumSet.allOf(PlayerPositionLookS2CPacket.Flag.class));
         // override common data that may have been altered during this shell's existence
-        performNbtCopy(computeCopyNbt(shell), soul);
+        copyPlayerState(shell, soul);
         PlayerShellEvents.DATA_TRANSFER.invoker().transferData(shell, soul, true);
 
         soul.networkHandler.sendPacket(new EntityTrackerUpdateS2CPacket(soul.getId(), soul.getDataTracker(), true));
@@ -160,39 +184,132 @@ public final class PlayerSplitter {
         }
     }
 
-    private static NbtCompound computeCopyNbt(Entity template) {
-        //Player keeps everything that goes through death
-        NbtCompound templateNbt = template.writeNbt(new NbtCompound());
-        deduplicateVanillaData(templateNbt);
-        deduplicateComponents(templateNbt, template.getComponentContainer().keys());
-        return templateNbt;
+    /**
+     * Copies everything that does not go through death from {@code from} to {@code to}.
+     *
+     * <p>Spawn points, ender chests, abilities, game modes, and soulbound components are left untouched.
+     * Components that are not {@linkplain CopyableComponent copyable} still get copied through NBT.
+     * To find data that other mods add to players, the custom data of {@code from} always gets serialized,
+     * which includes its inventory and recipe book.
+     */
+    public static void copyPlayerState(ServerPlayerEntity from, ServerPlayerEntity to) {
+        copyEntityState(from, to);
+        copyLivingState(from, to);
+        copyPlayerData(from, to);
+        copyComponents(from, to);
+        copyUnknownData(from, to);
+    }
+
+    private static void copyEntityState(Entity from, Entity to) {
+        to.refreshPositionAndAngles(from.getX(), from.getY(), from.getZ(), from.getYaw(), from.getPitch());
+        to.setHeadYaw(from.getYaw());
+        to.setBodyYaw(from.getYaw());
+        to.setVelocity(from.getVelocity());
+        to.fallDistance = from.fallDistance;
+        to.setFireTicks(from.getFireTicks());
+        to.setAir(from.getAir());
+        to.setOnGround(from.isOnGround());
+        to.setInvulnerable(from.isInvulnerable());
+        to.setFrozenTicks(from.getFrozenTicks());
+        to.setSilent(from.isSilent());
+        to.setNoGravity(from.hasNoGravity());
+        to.setGlowing(from.isGlowing());
+        if (from.hasCustomName()) {
+            to.setCustomName(from.getCustomName());
+        }
+        to.setCustomNameVisible(from.isCustomNameVisible());
+        // Tags only get written when there are some, in which case they replace the existing ones
+        if (!from.getScoreboardTags().isEmpty()) {
+            to.getScoreboardTags().clear();
+            to.getScoreboardTags().addAll(from.getScoreboardTags());
+        }
     }
 
-    private static void deduplicateComponents(NbtCompound leftoverData, Set<ComponentKey<?>> keys) {
-        NbtCompound leftoverComponents = leftoverData.getCompound(AbstractComponentContainer.NBT_KEY);
+    private static void copyLivingState(LivingEntity from, PlayerEntity to) {
+        to.setAbsorptionAmount(from.getAbsorptionAmount());
+        // attributes first, as they cap the health
+        // only persistent modifiers get serialized, transient ones like sprinting belong to the source player
+        to.getAttributes().readNbt(from.getAttributes().toNbt());
+        // effect modifiers are already part of the copied attributes, so we must not apply the effects again
+        for (StatusEffectInstance effect : from.getStatusEffects()) {
+            to.getActiveStatusEffects().put(effect.getEffectType(), new StatusEffectInstance(effect));
+        }
+        to.setHealth(from.getHealth());
+        to.hurtTime = from.hurtTime;
+        to.deathTime = from.deathTime;
+        if (from.isFallFlying()) {
+            to.startFallFlying();
+        }
+        from.getSleepingPosition().ifPresent(to::setSleepingPosition);
+    }
+
+    private static void copyPlayerData(ServerPlayerEntity from, ServerPlayerEntity to) {
+        PlayerInventory fromInventory = from.getInventory();
+        PlayerInventory toInventory = to.getInventory();
+        for (int i = 0; i < fromInventory.size(); i++) {
+            toInventory.setStack(i, fromInventory.getStack(i).copy());
+        }
+        toInventory.selectedSlot = fromInventory.selectedSlot;
+        to.experienceProgress = from.experienceProgress;
+        to.experienceLevel = from.experienceLevel;
+        to.totalExperience = from.totalExperience;
+        to.setScore(from.getScore());
+        ((PlayerEntityAccessor) to).requiem$setEnchantmentTableSeed(from.getEnchantmentTableSeed());
+        // the hunger manager has no copy method, but its NBT is tiny
+        NbtCompound hunger = new NbtCompound();
+        from.getHungerManager().writeNbt(hunger);
+        to.getHungerManager().readNbt(hunger);
+        if (!from.getShoulderEntityLeft().isEmpty()) {
+            ((PlayerEntityAccessor) to).requiem$invokeSetShoulderEntityLeft(from.getShoulderEntityLeft().copy());
+        }
+        if (!from.getShoulderEntityRight().isEmpty()) {
+            ((PlayerEntityAccessor) to).requiem$invokeSetShoulderEntityRight(from.getShoulderEntityRight().copy());
+        }
+        to.getRecipeBook().copyFrom(from.getRecipeBook());
+    }
 
-        for (ComponentKey<?> key : keys) {
-            String keyId = key.getId().toString();
-            if (RespawnCopyStrategy.get(key) == RespawnCopyStrategy.ALWAYS_COPY) {
-                // avoid duplicating soulbound data
-                leftoverComponents.remove(keyId);
+    private static void copyComponents(Entity from, Entity to) {
+        for (ComponentKey<?> key : from.getComponentContainer().keys()) {
+            // avoid duplicating soulbound data
+            if (RespawnCopyStrategy.get(key) != RespawnCopyStrategy.ALWAYS_COPY) {
+                copyComponent(key, from, to);
             }
         }
     }
 
-    private static void deduplicateVanillaData(NbtCompound leftoverData) {
-        leftoverData.remove("UUID");
-        leftoverData.remove("SpawnX");
-        leftoverData.remove("SpawnY");
-        leftoverData.remove("SpawnZ");
-        leftoverData.remove("SpawnForced");
-        leftoverData.remove("SpawnAngle");
-        leftoverData.remove("SpawnDimension");
-        leftoverData.remove("EnderItems");
-        leftoverData.remove("abilities");
-        leftoverData.remove("playerGameType");
-        leftoverData.remove("previousPlayerGameType");
-        leftoverData.remove("seenCredits");
+    @SuppressWarnings("unchecked")
+    private static <C extends Component> void copyComponent(ComponentKey<C> key, Entity from, Entity to) {
+        C source = key.get(from);
+        C target = key.getNullable(to);
+        if (target == null) return;
+
+        if (target instanceof CopyableComponent<?> && target.getClass() == source.getClass()) {
+            ((CopyableComponent<C>) target).copyFrom(source);
+        } else {
+            NbtCompound nbt = new NbtCompound();
+            source.writeToNbt(nbt);
+            target.readFromNbt(nbt);
+        }
+    }
+
+    /**
+     * Copies the NBT that other mods add to players, going through a round trip of the target's custom data only if there is any
+     *
+     * <p>Mods add their data in {@link ServerPlayerEntity#writeCustomDataToNbt(NbtCompound)}, so the base entity data
+     * and components written by {@link Entity#writeNbt(NbtCompound)} can be skipped.
+     */
+    public static void copyUnknownData(ServerPlayerEntity from, ServerPlayerEntity to) {
+        NbtCompound leftoverData = new NbtCompound();
+        from.writeCustomDataToNbt(leftoverData);
+        for (String key : KNOWN_NBT_KEYS) {
+            leftoverData.remove(key);
+        }
+        if (!leftoverData.isEmpty()) {
+            NbtCompound serialized = new NbtCompound();
+            to.writeCustomDataToNbt(serialized);
+            serialized.copyFrom(leftoverData);
+            to.readCustomDataFromNbt(serialized);
+        }
     }
 
     public static void performNbtCopy(NbtCompound from, Entity to) {
@@ -91,6 +91,7 @@ public final class RemnantComponentImpl implements RemnantComponent {
         this.state = handler;
         this.remnantType = type;
         this.state.setup(oldHandler);
+        this.updateFlags();
         RemnantComponent.KEY.sync(this.player);
         this.fireRemnantStateChange(wasSoul, RemnantStateChangeCallback.Cause.TYPE_UPDATE);
     }
@@ -120,6 +121,7 @@ public final class RemnantComponentImpl implements RemnantComponent {
 
         if (soul != vagrant) {
             if (this.state.setVagrant(vagrant)) {
+                this.updateFlags();
                 this.fireRemnantStateChange(soul, cause);
                 return true;
             }
@@ -128,6 +130,10 @@ public final class RemnantComponentImpl implements RemnantComponent {
         return true;
     }
 
+    private void updateFlags() {
+        ((RemnantFlags) this.player).requiem$setVagrant(this.state.isVagrant());
+    }
+
     private void fireRemnantStateChange(boolean wasSoul, RemnantStateChangeCallback.Cause cause) {
         boolean nowSoul = this.isVagrant();
 
@@ -0,0 +1,66 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.common.remnant;
+
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.core.possession.PossessorLink;
+import net.minecraft.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copy of a player's vagrant state, kept next to the {@linkplain PossessorLink possessor link}.
+ *
+ * <p>Implemented on every player, so that vanilla predicates evaluated by mob AI can tell souls apart
+ * with plain field reads instead of a component lookup. The flag is kept up to date by {@link RemnantComponentImpl}.
+ */
+public interface RemnantFlags {
+    /**
+     * Equivalent to {@link RemnantComponent#isVagrant(Entity)}
+     */
+    static boolean isVagrant(@Nullable Entity entity) {
+        return entity instanceof RemnantFlags flags && flags.requiem$isVagrant();
+    }
+
+    /**
+     * Equivalent to {@link RemnantComponent#isIncorporeal(Entity)}
+     */
+    static boolean isIncorporeal(@Nullable Entity entity) {
+        return isVagrant(entity) && PossessorLink.getLinkedHost(entity) == null;
+    }
+
+    boolean requiem$isVagrant();
+
+    void requiem$setVagrant(boolean vagrant);
+}
@@ -35,8 +35,8 @@
 package ladysnake.requiem.common.remnant;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
-import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import ladysnake.requiem.api.v1.remnant.AttritionFocus;
 import ladysnake.requiem.common.entity.effect.AttritionStatusEffect;
 import net.fabricmc.fabric.api.util.NbtType;
@@ -48,15 +48,24 @@ import javax.annotation.Nonnegative;
 import java.util.UUID;
 
 public class SimpleAttritionFocus implements AttritionFocus {
-    protected final Object2IntOpenHashMap<UUID> attritionLevels = new Object2IntOpenHashMap<>();
+    /**Shared empty map until some attrition gets added, most mobs never get any*/
+    private Object2IntMap<UUID> attritionLevels = Object2IntMaps.emptyMap();
+
+    private Object2IntMap<UUID> getMutableLevels() {
+        if (this.attritionLevels == Object2IntMaps.<UUID>emptyMap()) {
+            this.attritionLevels = new Object2IntOpenHashMap<>(2);
+        }
+        return this.attritionLevels;
+    }
 
     @Override
     public void addAttrition(UUID playerUuid, @Nonnegative int level) {
-        this.attritionLevels.mergeInt(playerUuid, level, Integer::sum);
+        this.getMutableLevels().mergeInt(playerUuid, level, Integer::sum);
     }
 
     @Override
     public void applyAttrition(PlayerEntity player) {
+        if (this.attritionLevels.isEmpty()) return;
         int attrition = this.attritionLevels.removeInt(player.getUuid());
         if (attrition > 0) {
             AttritionStatusEffect.apply(player, attrition);
@@ -65,11 +74,10 @@ public class SimpleAttritionFocus implements AttritionFocus {
 
     @Override
     public void transferAttrition(AttritionFocus other) {
-        for (ObjectIterator<Object2IntMap.Entry<UUID>> iterator = this.attritionLevels.object2IntEntrySet().fastIterator(); iterator.hasNext(); ) {
-            Object2IntMap.Entry<UUID> entry = iterator.next();
+        for (Object2IntMap.Entry<UUID> entry : Object2IntMaps.fastIterable(this.attritionLevels)) {
             other.addAttrition(entry.getKey(), entry.getIntValue());
-            iterator.remove();
         }
+        this.attritionLevels = Object2IntMaps.emptyMap();
     }
 
     @Override
@@ -81,11 +89,11 @@ public class SimpleAttritionFocus implements AttritionFocus {
     public void readFromNbt(NbtCompound tag) {
         if (tag.contains("attrition_levels")) {
             NbtList levels = tag.getList("attrition_levels", NbtType.COMPOUND);
-            this.attritionLevels.clear();
+            this.attritionLevels = Object2IntMaps.emptyMap();
             for (int i = 0; i < levels.size(); i++) {
                 NbtCompound playerLevel = levels.getCompound(i);
                 int level = playerLevel.getInt("level");
-                this.attritionLevels.put(playerLevel.getUuid("player_uuid"), level);
+                this.getMutableLevels().put(playerLevel.getUuid("player_uuid"), level);
             }
         }
     }
@@ -35,6 +35,7 @@
 package ladysnake.requiem.common.tag;
 
 import ladysnake.requiem.Requiem;
+import ladysnake.requiem.core.entity.EntityTraits;
 import net.minecraft.entity.EntityType;
 import net.minecraft.tag.TagKey;
 import net.minecraft.util.registry.Registry;
@@ -64,6 +65,6 @@ public final class RequiemEntityTypeTags {
     }
 
     public static TagKey<EntityType<?>> register(String name) {
-        return TagKey.of(Registry.ENTITY_TYPE_KEY, Requiem.id(name));
+        return EntityTraits.register(TagKey.of(Registry.ENTITY_TYPE_KEY, Requiem.id(name)));
     }
 }
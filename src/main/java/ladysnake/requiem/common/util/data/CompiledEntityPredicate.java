@@ -0,0 +1,211 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.common.util.data;
+
+import ladysnake.requiem.api.v1.internal.ProtoPossessable;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.util.ExtendedEntityPredicate;
+import ladysnake.requiem.mixin.common.access.EntityPredicateAccessor;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.passive.CatEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.predicate.NbtPredicate;
+import net.minecraft.predicate.NumberRange;
+import net.minecraft.predicate.entity.DistancePredicate;
+import net.minecraft.predicate.entity.EntityEffectPredicate;
+import net.minecraft.predicate.entity.EntityEquipmentPredicate;
+import net.minecraft.predicate.entity.EntityFlagsPredicate;
+import net.minecraft.predicate.entity.EntityPredicate;
+import net.minecraft.predicate.entity.EntityTypePredicate;
+import net.minecraft.predicate.entity.FishingHookPredicate;
+import net.minecraft.predicate.entity.LightningBoltPredicate;
+import net.minecraft.predicate.entity.LocationPredicate;
+import net.minecraft.predicate.entity.PlayerPredicate;
+import net.minecraft.scoreboard.AbstractTeam;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A flattened version of an {@link EntityPredicate} and Requiem's extensions to it.
+ *
+ * <p>Sub-predicates that always match are dropped, and the remaining checks run from cheapest to most expensive:
+ * entity type, flags, and health fraction first, world-dependent location checks and NBT serialization last.
+ *
+ * <p>Clientside tests run without a server world. Checks that need one are skipped and left to the server,
+ * instead of failing with an exception.
+ */
+public final class CompiledEntityPredicate {
+    public static final CompiledEntityPredicate ANY = new CompiledEntityPredicate(new Check[0], true);
+
+    private final Check[] checks;
+    private final boolean any;
+
+    private CompiledEntityPredicate(Check[] checks, boolean any) {
+        this.checks = checks;
+        this.any = any;
+    }
+
+    public static CompiledEntityPredicate compile(EntityPredicate predicate) {
+        if (predicate == EntityPredicate.ANY) return ANY;
+
+        EntityPredicateAccessor vanilla = (EntityPredicateAccessor) predicate;
+        ExtendedEntityPredicate extensions = (ExtendedEntityPredicate) predicate;
+        List<Check> checks = new ArrayList<>();
+
+        EntityTypePredicate type = vanilla.requiem$getType();
+        if (type != EntityTypePredicate.ANY) {
+            checks.add((world, pos, entity) -> type.matches(entity.getType()));
+        }
+        Identifier catType = vanilla.requiem$getCatType();
+        if (catType != null) {
+            checks.add((world, pos, entity) -> entity instanceof CatEntity cat && cat.getTexture().equals(catType));
+        }
+        EntityFlagsPredicate flags = vanilla.requiem$getFlags();
+        if (flags != EntityFlagsPredicate.ANY) {
+            checks.add((world, pos, entity) -> flags.test(entity));
+        }
+        NumberRange.FloatRange healthFraction = extensions.requiem$getHealthFraction();
+        if (!healthFraction.isDummy()) {
+            checks.add((world, pos, entity) -> !(entity instanceof LivingEntity living) || healthFraction.test(living.getHealth() / living.getMaxHealth()));
+        }
+        String team = vanilla.requiem$getTeam();
+        if (team != null) {
+            checks.add((world, pos, entity) -> {
+                AbstractTeam entityTeam = entity.getScoreboardTeam();
+                return entityTeam != null && team.equals(entityTeam.getName());
+            });
+        }
+        DistancePredicate distance = vanilla.requiem$getDistance();
+        if (distance != DistancePredicate.ANY) {
+            checks.add((world, pos, entity) -> pos != null && distance.test(pos.x, pos.y, pos.z, entity.getX(), entity.getY(), entity.getZ()));
+        }
+        Boolean canBeCured = extensions.requiem$getCanBeCured();
+        if (canBeCured != null) {
+            checks.add((world, pos, entity) -> {
+                if (!(entity instanceof LivingEntity living)) return true;
+                PlayerEntity possessor = ((ProtoPossessable) living).getPossessor();
+                return possessor == null || RemnantComponent.KEY.get(possessor).canCurePossessed(living) == canBeCured;
+            });
+        }
+        EntityEffectPredicate effects = vanilla.requiem$getEffects();
+        if (effects != EntityEffectPredicate.EMPTY) {
+            checks.add((world, pos, entity) -> effects.test(entity));
+        }
+        EntityEquipmentPredicate equipment = vanilla.requiem$getEquipment();
+        if (equipment != EntityEquipmentPredicate.ANY) {
+            checks.add((world, pos, entity) -> equipment.test(entity));
+        }
+        PlayerPredicate player = vanilla.requiem$getPlayer();
+        if (player != PlayerPredicate.ANY) {
+            checks.add((world, pos, entity) -> player.test(entity));
+        }
+        FishingHookPredicate fishingHook = vanilla.requiem$getFishingHook();
+        if (fishingHook != FishingHookPredicate.ANY) {
+            checks.add((world, pos, entity) -> fishingHook.test(entity));
+        }
+        LightningBoltPredicate lightningBolt = vanilla.requiem$getLightningBolt();
+        if (lightningBolt != LightningBoltPredicate.ANY) {
+            checks.add((world, pos, entity) -> lightningBolt.test(entity, world, pos));
+        }
+        // Related entities get tested by their own compiled predicates
+        EntityPredicate vehicle = vanilla.requiem$getVehicle();
+        if (vehicle != EntityPredicate.ANY) {
+            checks.add((world, pos, entity) -> vehicle.test(world, pos, entity.getVehicle()));
+        }
+        EntityPredicate passenger = vanilla.requiem$getPassenger();
+        if (passenger != EntityPredicate.ANY) {
+            checks.add((world, pos, entity) -> {
+                for (Entity e : entity.getPassengerList()) {
+                    if (passenger.test(world, pos, e)) return true;
+                }
+                return false;
+            });
+        }
+        EntityPredicate targetedEntity = vanilla.requiem$getTargetedEntity();
+        if (targetedEntity != EntityPredicate.ANY) {
+            checks.add((world, pos, entity) -> targetedEntity.test(world, pos, entity instanceof MobEntity mob ? mob.getTarget() : null));
+        }
+        LocationPredicate location = vanilla.requiem$getLocation();
+        if (location != LocationPredicate.ANY) {
+            checks.add((world, pos, entity) -> world == null || location.test(world, entity.getX(), entity.getY(), entity.getZ()));
+        }
+        LocationPredicate steppingOn = vanilla.requiem$getSteppingOn();
+        if (steppingOn != LocationPredicate.ANY) {
+            checks.add((world, pos, entity) -> {
+                if (world == null) return true;
+                Vec3d steppingPos = Vec3d.ofCenter(entity.getLandingPos());
+                return steppingOn.test(world, steppingPos.x, steppingPos.y, steppingPos.z);
+            });
+        }
+        NbtPredicate nbt = vanilla.requiem$getNbt();
+        if (nbt != NbtPredicate.ANY) {
+            checks.add((world, pos, entity) -> nbt.test(entity));
+        }
+
+        return new CompiledEntityPredicate(checks.toArray(new Check[0]), false);
+    }
+
+    /**
+     * Equivalent to {@link EntityPredicate#test(ServerWorld, Vec3d, Entity)}, with a nullable world for clientside tests.
+     */
+    public boolean test(@Nullable ServerWorld world, @Nullable Vec3d pos, @Nullable Entity entity) {
+        if (this.any) return true;
+        if (entity == null) return false;
+
+        for (Check check : this.checks) {
+            if (!check.test(world, pos, entity)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of checks left after compilation
+     */
+    public int size() {
+        return this.checks.length;
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean test(@Nullable ServerWorld world, @Nullable Vec3d pos, Entity entity);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiem.mixin.common.access;
+
+import net.minecraft.predicate.NbtPredicate;
+import net.minecraft.predicate.entity.DistancePredicate;
+import net.minecraft.predicate.entity.EntityEffectPredicate;
+import net.minecraft.predicate.entity.EntityEquipmentPredicate;
+import net.minecraft.predicate.entity.EntityFlagsPredicate;
+import net.minecraft.predicate.entity.EntityPredicate;
+import net.minecraft.predicate.entity.EntityTypePredicate;
+import net.minecraft.predicate.entity.FishingHookPredicate;
+import net.minecraft.predicate.entity.LightningBoltPredicate;
+import net.minecraft.predicate.entity.LocationPredicate;
+import net.minecraft.predicate.entity.PlayerPredicate;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(EntityPredicate.class)
+public interface EntityPredicateAccessor {
+    @Accessor("type")
+    EntityTypePredicate requiem$getType();
+
+    @Accessor("distance")
+    DistancePredicate requiem$getDistance();
+
+    @Accessor("location")
+    LocationPredicate requiem$getLocation();
+
+    @Accessor("steppingOn")
+    LocationPredicate requiem$getSteppingOn();
+
+    @Accessor("effects")
+    EntityEffectPredicate requiem$getEffects();
+
+    @Accessor("nbt")
+    NbtPredicate requiem$getNbt();
+
+    @Accessor("flags")
+    EntityFlagsPredicate requiem$getFlags();
+
+    @Accessor("equipment")
+    EntityEquipmentPredicate requiem$getEquipment();
+
+    @Accessor("player")
+    PlayerPredicate requiem$getPlayer();
+
+    @Accessor("fishingHook")
+    FishingHookPredicate requiem$getFishingHook();
+
+    @Accessor("lightningBolt")
+    LightningBoltPredicate requiem$getLightningBolt();
+
+    @Accessor("vehicle")
+    EntityPredicate requiem$getVehicle();
+
+    @Accessor("passenger")
+    EntityPredicate requiem$getPassenger();
+
+    @Accessor("targetedEntity")
+    EntityPredicate requiem$getTargetedEntity();
+
+    @Accessor("team")
+    @Nullable String requiem$getTeam();
+
+    @Accessor("catType")
+    @Nullable Identifier requiem$getCatType();
+}
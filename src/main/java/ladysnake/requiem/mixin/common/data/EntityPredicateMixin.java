@@ -36,11 +36,9 @@ package ladysnake.requiem.mixin.common.data;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import ladysnake.requiem.api.v1.internal.ProtoPossessable;
-import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.util.ExtendedEntityPredicate;
+import ladysnake.requiem.common.util.data.CompiledEntityPredicate;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.LivingEntity;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.predicate.NumberRange;
 import net.minecraft.predicate.entity.EntityPredicate;
 import net.minecraft.server.world.ServerWorld;
@@ -48,30 +46,39 @@ import net.minecraft.util.JsonHelper;
 import net.minecraft.util.math.Vec3d;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 
 @Mixin(EntityPredicate.class)
-public abstract class EntityPredicateMixin {
+public abstract class EntityPredicateMixin implements ExtendedEntityPredicate {
     private @Nullable Boolean requiem$canBeCured;
     private NumberRange.FloatRange requiem$healthFraction = NumberRange.FloatRange.ANY;
+    /**Compiled on first use, once every extension has been parsed*/
+    @Unique
+    private @Nullable CompiledEntityPredicate requiem$compiled;
 
-    @Inject(method = "test(Lnet/minecraft/server/world/ServerWorld;Lnet/minecraft/util/math/Vec3d;Lnet/minecraft/entity/Entity;)Z", at = @At("RETURN"), cancellable = true)
-    private void test(ServerWorld world, Vec3d pos, Entity entity, CallbackInfoReturnable<Boolean> cir) {
-        if (cir.getReturnValueZ() && entity instanceof LivingEntity) {
-            if (requiem$canBeCured != null) {
-                PlayerEntity possessor = ((ProtoPossessable) entity).getPossessor();
-                if (possessor != null && RemnantComponent.KEY.get(possessor).canCurePossessed((LivingEntity) entity) != requiem$canBeCured) {
-                    cir.setReturnValue(false);
-                    return;
-                }
-            }
-            if (!requiem$healthFraction.test(((LivingEntity) entity).getHealth() / ((LivingEntity) entity).getMaxHealth())) {
-                cir.setReturnValue(false);
-            }
+    @Override
+    public @Nullable Boolean requiem$getCanBeCured() {
+        return this.requiem$canBeCured;
+    }
+
+    @Override
+    public NumberRange.FloatRange requiem$getHealthFraction() {
+        return this.requiem$healthFraction;
+    }
+
+    // Replaces the vanilla body, which runs location lookups and NBT serialization before cheaper checks like flags
+    @Inject(method = "test(Lnet/minecraft/server/world/ServerWorld;Lnet/minecraft/util/math/Vec3d;Lnet/minecraft/entity/Entity;)Z", at = @At("HEAD"), cancellable = true)
+    private void test(@Nullable ServerWorld world, @Nullable Vec3d pos, @Nullable Entity entity, CallbackInfoReturnable<Boolean> cir) {
+        CompiledEntityPredicate compiled = this.requiem$compiled;
+        if (compiled == null) {
+            // Compiling twice from different threads is harmless
+            compiled = this.requiem$compiled = CompiledEntityPredicate.compile((EntityPredicate) (Object) this);
         }
+        cir.setReturnValue(compiled.test(world, pos, entity));
     }
 
     // ANY return is actually an early return in the bytecode
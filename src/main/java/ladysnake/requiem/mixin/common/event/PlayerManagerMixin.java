@@ -37,6 +37,7 @@ package ladysnake.requiem.mixin.common.event;
 import ladysnake.requiem.api.v1.event.minecraft.PlayerRespawnCallback;
 import ladysnake.requiem.api.v1.event.minecraft.PrepareRespawnCallback;
 import ladysnake.requiem.api.v1.event.minecraft.SyncServerResourcesCallback;
+import ladysnake.requiem.common.network.DataSyncCache;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -69,6 +70,8 @@ public abstract class PlayerManagerMixin {
 
     @Inject(method = "onDataPacksReloaded", at = @At(value = "NEW", target = "net/minecraft/network/packet/s2c/play/SynchronizeTagsS2CPacket"))
     private void synchronizeServerData(CallbackInfo ci) {
+        // Data managers have applied their new data by now, but the payload may have been cached mid-reload
+        DataSyncCache.invalidate();
         for (ServerPlayerEntity player : this.players) {
             SyncServerResourcesCallback.EVENT.invoker().onServerSync(player);
         }
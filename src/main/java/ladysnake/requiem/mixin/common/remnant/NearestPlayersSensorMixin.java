@@ -34,7 +34,7 @@
  */
 package ladysnake.requiem.mixin.common.remnant;
 
-import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.remnant.RemnantFlags;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.ai.brain.sensor.NearestPlayersSensor;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -49,7 +49,7 @@ public abstract class NearestPlayersSensorMixin {
     @Dynamic("Lambda method injection")
     @Inject(method = "method_19098", at = @At("RETURN"), cancellable = true)
     private static void preventSensingVagrantPlayers(LivingEntity subject, ServerPlayerEntity player, CallbackInfoReturnable<Boolean> cir) {
-        if (cir.getReturnValueZ() && RemnantComponent.isVagrant(player)) {
+        if (cir.getReturnValueZ() && RemnantFlags.isVagrant(player)) {
             cir.setReturnValue(false);
         }
     }
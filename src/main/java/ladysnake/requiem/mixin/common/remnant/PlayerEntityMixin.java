@@ -38,6 +38,7 @@ import ladysnake.requiem.api.v1.RequiemPlayer;
 import ladysnake.requiem.api.v1.entity.MovementAlterer;
 import ladysnake.requiem.api.v1.remnant.RemnantComponent;
 import ladysnake.requiem.common.entity.RequiemEntityAttributes;
+import ladysnake.requiem.common.remnant.RemnantFlags;
 import net.minecraft.entity.EntityDimensions;
 import net.minecraft.entity.EntityPose;
 import net.minecraft.entity.EntityType;
@@ -52,6 +53,7 @@ import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Slice;
@@ -59,7 +61,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(PlayerEntity.class)
-public abstract class PlayerEntityMixin extends LivingEntity implements RequiemPlayer {
+public abstract class PlayerEntityMixin extends LivingEntity implements RequiemPlayer, RemnantFlags {
 
     /* Implementation of RequiemPlayer */
 
@@ -71,6 +73,21 @@ public abstract class PlayerEntityMixin extends LivingEntity implements RequiemP
         cir.getReturnValue().add(RequiemEntityAttributes.SOUL_OFFENSE);
     }
 
+    /* Implementation of RemnantFlags */
+
+    @Unique
+    private boolean requiem$vagrant;
+
+    @Override
+    public boolean requiem$isVagrant() {
+        return this.requiem$vagrant;
+    }
+
+    @Override
+    public void requiem$setVagrant(boolean vagrant) {
+        this.requiem$vagrant = vagrant;
+    }
+
     /* Actual modifications of vanilla behaviour */
 
     @Inject(method = "isSwimming", at = @At("HEAD"), cancellable = true)
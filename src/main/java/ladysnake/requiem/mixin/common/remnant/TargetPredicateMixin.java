@@ -34,8 +34,8 @@
  */
 package ladysnake.requiem.mixin.common.remnant;
 
-import ladysnake.requiem.api.v1.remnant.RemnantComponent;
 import ladysnake.requiem.api.v1.util.RequiemTargetPredicate;
+import ladysnake.requiem.common.remnant.RemnantFlags;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.ai.TargetPredicate;
 import org.spongepowered.asm.mixin.Mixin;
@@ -54,7 +54,7 @@ public abstract class TargetPredicateMixin implements RequiemTargetPredicate {
 
     @Inject(method = "test", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/ai/TargetPredicate;predicate:Ljava/util/function/Predicate;", ordinal = 0), cancellable = true)
     private void removeSoulTargets(LivingEntity baseEntity, LivingEntity targetEntity, CallbackInfoReturnable<Boolean> cir) {
-        if (!this.requiem$targetIncorporealPlayer && RemnantComponent.isIncorporeal(targetEntity)) {
+        if (!this.requiem$targetIncorporealPlayer && RemnantFlags.isIncorporeal(targetEntity)) {
             cir.setReturnValue(false);
         }
     }
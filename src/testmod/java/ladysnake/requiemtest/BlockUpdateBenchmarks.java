@@ -0,0 +1,100 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.event.minecraft.BlockReplacedCallback;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Measures the cost of Requiem's block change listeners during mass block placement.
+ *
+ * <p>The listeners cannot be unloaded at runtime, so the placement cost without the mod is estimated
+ * by timing the listeners on their own for the exact same block changes.
+ * Results are logged rather than asserted, as they depend on the machine running the tests.
+ */
+public class BlockUpdateBenchmarks implements FabricGameTest {
+    private static final int SIZE = 32;
+    private static final int HEIGHT = 8;
+    private static final int WARMUP_PASSES = 2;
+    private static final int MEASURED_PASSES = 10;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void massSetBlockState(TestContext ctx) {
+        ServerWorld world = ctx.getWorld();
+        BlockPos origin = ctx.getAbsolutePos(new BlockPos(0, 2, 0));
+        BlockState[] states = {Blocks.STONE.getDefaultState(), Blocks.SOUL_SAND.getDefaultState(), Blocks.AIR.getDefaultState()};
+        long placementTime = 0;
+        long listenerTime = 0;
+
+        try {
+            for (int pass = 0; pass < WARMUP_PASSES + MEASURED_PASSES; pass++) {
+                BlockState newState = states[pass % states.length];
+                long placementStart = System.nanoTime();
+                for (BlockPos pos : BlockPos.iterate(origin, origin.add(SIZE - 1, HEIGHT - 1, SIZE - 1))) {
+                    world.setBlockState(pos, newState, Block.NOTIFY_LISTENERS);
+                }
+                long listenerStart = System.nanoTime();
+                BlockState oldState = states[(pass + states.length - 1) % states.length];
+                for (BlockPos pos : BlockPos.iterate(origin, origin.add(SIZE - 1, HEIGHT - 1, SIZE - 1))) {
+                    BlockReplacedCallback.EVENT.invoker().onBlockPlaced(oldState, world, pos, newState, false);
+                }
+                long end = System.nanoTime();
+                if (pass >= WARMUP_PASSES) {
+                    placementTime += listenerStart - placementStart;
+                    listenerTime += end - listenerStart;
+                }
+            }
+        } finally {
+            for (BlockPos pos : BlockPos.iterate(origin, origin.add(SIZE - 1, HEIGHT - 1, SIZE - 1))) {
+                world.setBlockState(pos, Blocks.AIR.getDefaultState(), Block.NOTIFY_LISTENERS);
+            }
+        }
+
+        double blocks = (double) SIZE * SIZE * HEIGHT * MEASURED_PASSES;
+        double withMod = blocks / (placementTime / 1e9);
+        double withoutMod = blocks / ((placementTime - listenerTime) / 1e9);
+        Requiem.LOGGER.info("[Benchmark] Mass setBlockState: {} blocks/s with Requiem listeners, ~{} blocks/s without ({} ns/block in listeners)",
+            "%.0f".formatted(withMod), "%.0f".formatted(withoutMod), "%.1f".formatted(listenerTime / blocks));
+        ctx.complete();
+    }
+}
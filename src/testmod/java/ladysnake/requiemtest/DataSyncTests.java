@@ -0,0 +1,84 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.api.v1.event.minecraft.SyncServerResourcesCallback;
+import ladysnake.requiem.api.v1.util.SubDataManagerHelper;
+import ladysnake.requiem.common.network.DataSyncCache;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class DataSyncTests implements FabricGameTest {
+    /**Payloads offered to players during the reload broadcast, only non-null while a test is listening*/
+    private static @Nullable List<DataSyncCache.Payload> broadcastPayloads;
+
+    static {
+        SyncServerResourcesCallback.EVENT.register(player -> {
+            if (broadcastPayloads != null) {
+                broadcastPayloads.add(DataSyncCache.get(SubDataManagerHelper.getServerHelper()));
+            }
+        });
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE, batchId = "requiem_data_reload")
+    public void syncRequestedMidReloadIsNotBroadcast(TestContext ctx) {
+        MinecraftServer server = ctx.getWorld().getServer();
+        ServerPlayerEntity player = ctx.spawnServerPlayer(1, 2, 1);
+        List<DataSyncCache.Payload> broadcast = new ArrayList<>();
+        broadcastPayloads = broadcast;
+        CompletableFuture<Void> reload = server.reloadResources(server.getDataPackManager().getEnabledNames());
+        // a player requesting a sync while the new data is being loaded
+        DataSyncCache.Payload stale = DataSyncCache.get(SubDataManagerHelper.getServerHelper());
+        GameTestUtil.assertTrue("First request should be answered", DataSyncCache.markRequested(player, stale));
+        GameTestUtil.assertTrue("Repeated request should be dropped", !DataSyncCache.markRequested(player, stale));
+        ctx.addFinalTask(() -> {
+            GameTestUtil.assertTrue("Reload should be done", reload.isDone());
+            broadcastPayloads = null;
+            GameTestUtil.assertTrue("Reload should be broadcast to players", !broadcast.isEmpty());
+            for (DataSyncCache.Payload payload : broadcast) {
+                GameTestUtil.assertTrue("Payload cached mid-reload should not be broadcast", payload != stale);
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.possession.PossessionComponent;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.gamerule.RequiemGamerules;
+import ladysnake.requiem.common.remnant.RemnantTypes;
+import ladysnake.requiem.core.util.DetectionHelper;
+import ladysnake.requiem.core.util.DetectionScheduler;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.mob.HuskEntity;
+import net.minecraft.entity.mob.ZombieEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how many line-of-sight checks crowd detection performs per tick, with and without a raycast budget,
+ * while a possessed mob keeps hitting zombies inside a crowded farm.
+ *
+ * <p>Results are logged rather than asserted, except for the budget itself.
+ */
+public class DetectionBenchmarks implements FabricGameTest {
+    private static final int WITNESS_COUNT = 100;
+    private static final int ALERTS_PER_TICK = 20;
+    private static final int MEASURED_TICKS = 40;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void crowdAlerts(TestContext ctx) {
+        ServerPlayerEntity player = ctx.spawnServerPlayer(1, 2, 1);
+        RemnantComponent remnant = RemnantComponent.get(player);
+        remnant.become(RemnantTypes.REMNANT);
+        remnant.setVagrant(true);
+        HuskEntity host = ctx.spawnMob(EntityType.HUSK, 1, 2, 1);
+        GameTestUtil.assertTrue("Player should possess the husk", PossessionComponent.get(player).startPossessing(host));
+
+        List<ZombieEntity> witnesses = new ArrayList<>(WITNESS_COUNT);
+        for (int i = 0; i < WITNESS_COUNT; i++) {
+            ZombieEntity witness = ctx.spawnMob(EntityType.ZOMBIE, 2 + i % 5, 2, 2 + (i / 5) % 5);
+            witness.setAiDisabled(true);
+            witnesses.add(witness);
+        }
+
+        DetectionScheduler scheduler = DetectionScheduler.get(ctx.getWorld());
+        try {
+            DetectionScheduler.setRaycastBudget(0);
+            Result unbudgeted = measureCrowdAlerts(scheduler, host, witnesses);
+            DetectionScheduler.setRaycastBudget(DetectionScheduler.DEFAULT_RAYCAST_BUDGET);
+            Result budgeted = measureCrowdAlerts(scheduler, host, witnesses);
+
+            GameTestUtil.assertTrue("Raycasts should stay within the budget", budgeted.peak() <= DetectionScheduler.DEFAULT_RAYCAST_BUDGET);
+            Requiem.LOGGER.info(
+                "[Benchmark] Crowd detection with {} witnesses and {} alerts per tick: unbudgeted {} raycasts/tick (peak {}), budgeted {} raycasts/tick (peak {}, {} still queued)",
+                WITNESS_COUNT,
+                ALERTS_PER_TICK,
+                "%.1f".formatted(unbudgeted.average()),
+                unbudgeted.peak(),
+                "%.1f".formatted(budgeted.average()),
+                budgeted.peak(),
+                budgeted.queued()
+            );
+        } finally {
+            DetectionScheduler.setRaycastBudget(ctx.getWorld().getGameRules().getInt(RequiemGamerules.DETECTION_RAYCAST_BUDGET));
+            PossessionComponent.get(player).stopPossessing(false);
+            host.discard();
+            witnesses.forEach(Entity::discard);
+        }
+
+        ctx.complete();
+    }
+
+    private static Result measureCrowdAlerts(DetectionScheduler scheduler, HuskEntity host, List<ZombieEntity> witnesses) {
+        long total = 0;
+        int peak = 0;
+        for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+            for (int i = 0; i < ALERTS_PER_TICK; i++) {
+                DetectionHelper.inciteMobAndAllies(host, witnesses.get((tick * ALERTS_PER_TICK + i) % witnesses.size()));
+            }
+            scheduler.serverTick();
+            total += scheduler.getRaycastsLastTick();
+            peak = Math.max(peak, scheduler.getRaycastsLastTick());
+        }
+        int queued = scheduler.getQueuedChecks();
+        // Drain the queue so that the next measurement starts fresh
+        while (scheduler.getQueuedChecks() > 0) {
+            scheduler.serverTick();
+        }
+        return new Result((double) total / MEASURED_TICKS, peak, queued);
+    }
+
+    private record Result(double average, int peak, int queued) { }
+}
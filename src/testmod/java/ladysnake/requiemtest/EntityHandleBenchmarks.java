@@ -0,0 +1,131 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.record.EntityPointer;
+import ladysnake.requiem.api.v1.record.GlobalRecord;
+import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
+import ladysnake.requiem.common.RequiemRecordTypes;
+import ladysnake.requiem.core.record.EntityHandle;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.decoration.ArmorStandEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the tick cost of resolving the bodies referenced by global records, with and without {@link EntityHandle}s.
+ *
+ * <p>Results are logged rather than asserted, as they depend on the machine running the tests.
+ */
+public class EntityHandleBenchmarks implements FabricGameTest {
+    private static final int WARMUP_TICKS = 50;
+    private static final int MEASURED_TICKS = 200;
+    /**Pointers get updated at this interval, like they would for bodies drifting across blocks*/
+    private static final int POINTER_UPDATE_INTERVAL = 16;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void trackedBodies1k(TestContext ctx) {
+        benchmarkTrackedBodies(ctx, 1_000);
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void trackedBodies5k(TestContext ctx) {
+        benchmarkTrackedBodies(ctx, 5_000);
+    }
+
+    private static void benchmarkTrackedBodies(TestContext ctx, int bodyCount) {
+        MinecraftServer server = ctx.getWorld().getServer();
+        GlobalRecordKeeper keeper = GlobalRecordKeeper.get(ctx.getWorld());
+        List<ArmorStandEntity> bodies = new ArrayList<>(bodyCount);
+        List<GlobalRecord> records = new ArrayList<>(bodyCount);
+        List<EntityHandle> handles = new ArrayList<>(bodyCount);
+
+        for (int i = 0; i < bodyCount; i++) {
+            ArmorStandEntity body = ctx.spawnEntity(EntityType.ARMOR_STAND, 1.5, 2, 1.5);
+            body.setNoGravity(true);
+            GlobalRecord record = keeper.createRecord();
+            record.put(RequiemRecordTypes.BODY_REF, new EntityPointer(body));
+            bodies.add(body);
+            records.add(record);
+            handles.add(new EntityHandle(RequiemRecordTypes.BODY_REF));
+        }
+
+        try {
+            double pointerCost = measure(records, () -> {
+                for (GlobalRecord record : records) {
+                    record.get(RequiemRecordTypes.BODY_REF).flatMap(ptr -> ptr.resolve(server)).orElseThrow();
+                }
+            });
+            double handleCost = measure(records, () -> {
+                for (int i = 0; i < records.size(); i++) {
+                    handles.get(i).get(records.get(i), server);
+                }
+            });
+            GameTestUtil.assertTrue("Handle should resolve to the body", handles.get(0).get(records.get(0), server) == bodies.get(0));
+            Entity removed = bodies.get(0);
+            removed.discard();
+            GameTestUtil.assertTrue("Handle should not return removed entities", handles.get(0).get(records.get(0), server) == null);
+            Requiem.LOGGER.info("[Benchmark] Resolving {} tracked bodies: pointers {} µs/tick, handles {} µs/tick", bodyCount, "%.1f".formatted(pointerCost), "%.1f".formatted(handleCost));
+        } finally {
+            records.forEach(GlobalRecord::invalidate);
+            bodies.forEach(ArmorStandEntity::discard);
+        }
+
+        ctx.complete();
+    }
+
+    private static double measure(List<GlobalRecord> records, Runnable action) {
+        long total = 0;
+        for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+            if (tick % POINTER_UPDATE_INTERVAL == 0) {
+                for (GlobalRecord record : records) {
+                    record.get(RequiemRecordTypes.BODY_REF).ifPresent(ptr -> record.put(RequiemRecordTypes.BODY_REF, new EntityPointer(ptr.uuid(), ptr.world(), ptr.pos())));
+                }
+            }
+            long start = System.nanoTime();
+            action.run();
+            if (tick >= WARMUP_TICKS) total += System.nanoTime() - start;
+        }
+        return total / 1000.0 / MEASURED_TICKS;
+    }
+}
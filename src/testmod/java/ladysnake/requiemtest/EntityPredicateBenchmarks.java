@@ -0,0 +1,316 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.internal.ProtoPossessable;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.util.ExtendedEntityPredicate;
+import ladysnake.requiem.common.util.data.CompiledEntityPredicate;
+import ladysnake.requiem.mixin.common.access.EntityPredicateAccessor;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.mob.SkeletonEntity;
+import net.minecraft.entity.mob.SpiderEntity;
+import net.minecraft.entity.mob.ZombieEntity;
+import net.minecraft.entity.passive.CatEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.predicate.entity.DistancePredicate;
+import net.minecraft.predicate.entity.EntityPredicate;
+import net.minecraft.predicate.entity.LocationPredicate;
+import net.minecraft.scoreboard.AbstractTeam;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Measures entity predicate tests against a large generated data pack of possession predicates.
+ *
+ * <p>Most predicates in such packs fail on the entity type, which compiled predicates check before
+ * any location lookup or NBT serialization. Timings are logged rather than asserted, as they depend on the machine running the tests,
+ * next to those of a reference implementation of the vanilla test. Results and NBT serializations are however checked against it.
+ */
+public class EntityPredicateBenchmarks implements FabricGameTest {
+    private static final int PREDICATE_COUNT = 2_000;
+    private static final int ROUNDS = 20;
+    private static final List<EntityType<?>> TESTED_TYPES = List.of(EntityType.ZOMBIE, EntityType.SKELETON, EntityType.COW, EntityType.VILLAGER);
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void largePredicatePack(TestContext ctx) {
+        ServerWorld world = ctx.getWorld();
+        List<EntityType<?>> types = Registry.ENTITY_TYPE.stream().toList();
+        List<EntityPredicate> predicates = new ArrayList<>(PREDICATE_COUNT);
+        int checks = 0;
+        for (int i = 0; i < PREDICATE_COUNT; i++) {
+            EntityPredicate predicate = EntityPredicate.fromJson(createPredicateJson(i, types.get(i % types.size())));
+            predicates.add(predicate);
+            checks += CompiledEntityPredicate.compile(predicate).size();
+        }
+        CountingZombie zombie = new CountingZombie(world);
+        List<Entity> entities = new ArrayList<>(TESTED_TYPES.size());
+        for (EntityType<?> type : TESTED_TYPES) {
+            entities.add(type == EntityType.ZOMBIE ? zombie : Objects.requireNonNull(type.create(world)));
+        }
+
+        int matches = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Entity entity : entities) {
+                for (EntityPredicate predicate : predicates) {
+                    if (predicate.test(world, null, entity)) matches++;
+                }
+            }
+        }
+        long time = System.nanoTime() - start;
+        int nbtWrites = zombie.nbtWrites;
+
+        zombie.nbtWrites = 0;
+        int vanillaMatches = 0;
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Entity entity : entities) {
+                for (EntityPredicate predicate : predicates) {
+                    if (testVanilla(predicate, world, null, entity)) vanillaMatches++;
+                }
+            }
+        }
+        long vanillaTime = System.nanoTime() - start;
+        int vanillaNbtWrites = zombie.nbtWrites;
+
+        GameTestUtil.assertTrue("Compiled predicates should match as often as vanilla ones", matches == vanillaMatches);
+        GameTestUtil.assertTrue("Compiled predicates should not serialize entities more than vanilla ones", nbtWrites <= vanillaNbtWrites);
+        EntityPredicate babyZombie = EntityPredicate.fromJson(JsonParser.parseString("""
+            {"type": "minecraft:zombie", "nbt": "{PersistenceRequired:1b}", "flags": {"is_baby": true}}
+            """));
+        zombie.nbtWrites = 0;
+        GameTestUtil.assertTrue("Adult zombies should fail baby flags", !babyZombie.test(world, null, zombie));
+        GameTestUtil.assertTrue("Failed flags should skip the NBT check", zombie.nbtWrites == 0);
+        GameTestUtil.assertTrue("Vanilla checks NBT before flags", !testVanilla(babyZombie, world, null, zombie) && zombie.nbtWrites == 1);
+        EntityPredicate woundedZombie = EntityPredicate.fromJson(createPredicateJson(3, EntityType.ZOMBIE));
+        GameTestUtil.assertTrue("Healthy mobs should fail health fraction checks", !woundedZombie.test(world, null, zombie));
+        GameTestUtil.assertTrue("Clientside tests should skip location checks", CompiledEntityPredicate.compile(EntityPredicate.fromJson(createPredicateJson(2, EntityType.ZOMBIE))).test(null, null, zombie));
+
+        long evaluations = (long) ROUNDS * entities.size() * predicates.size();
+        Requiem.LOGGER.info("[Benchmark] {} entity predicates ({} checks after compilation): {} ns/test and {} NBT serializations, vanilla {} ns/test and {} NBT serializations, {} matches",
+            PREDICATE_COUNT, checks, time / evaluations, nbtWrites, vanillaTime / evaluations, vanillaNbtWrites, matches);
+        entities.forEach(Entity::discard);
+        ctx.complete();
+    }
+
+    /**
+     * A predicate setting every vanilla field and every Requiem extension
+     */
+    private static final String EXHAUSTIVE_PREDICATE = """
+        {
+          "type": "minecraft:cat",
+          "catType": "minecraft:textures/entity/cat/black.png",
+          "distance": {"absolute": {"max": 16}},
+          "location": {"requiem:biome_tag": "minecraft:is_overworld"},
+          "stepping_on": {"block": {"blocks": ["minecraft:stone"]}},
+          "effects": {"minecraft:speed": {}},
+          "nbt": "{PersistenceRequired:1b}",
+          "flags": {"is_baby": false},
+          "equipment": {"head": {"items": ["minecraft:leather_helmet"]}},
+          "player": {"gamemode": "survival"},
+          "fishing_hook": {"in_open_water": true},
+          "lightning_bolt": {"blocks_set_on_fire": {"min": 1}},
+          "vehicle": {"type": "minecraft:spider"},
+          "passenger": {"type": "minecraft:skeleton"},
+          "targeted_entity": {"type": "minecraft:zombie"},
+          "team": "requiem_predicate_test",
+          "requiem:health_fraction": {"max": 0.5},
+          "requiem:can_be_cured": true
+        }
+        """;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void compiledMatchesVanilla(TestContext ctx) {
+        ServerWorld world = ctx.getWorld();
+        Vec3d pos = Vec3d.ofCenter(ctx.getAbsolutePos(BlockPos.ORIGIN));
+        Team team = world.getScoreboard().addTeam("requiem_predicate_test");
+
+        CatEntity cat = ctx.spawnEntity(EntityType.CAT, 1.5, 2, 1.5);
+        cat.setCatType(1);
+        ZombieEntity zombie = ctx.spawnMob(EntityType.ZOMBIE, 3.5, 2, 1.5);
+        zombie.equipStack(EquipmentSlot.HEAD, new ItemStack(Items.LEATHER_HELMET));
+        zombie.addStatusEffect(new StatusEffectInstance(StatusEffects.SPEED, 200));
+        zombie.setPersistent();
+        zombie.setHealth(zombie.getMaxHealth() / 4);
+        world.getScoreboard().addPlayerToTeam(zombie.getEntityName(), team);
+        SpiderEntity spider = ctx.spawnMob(EntityType.SPIDER, 1.5, 2, 3.5);
+        SkeletonEntity skeleton = ctx.spawnMob(EntityType.SKELETON, 1.5, 2, 3.5);
+        skeleton.startRiding(spider, true);
+        skeleton.setTarget(zombie);
+        List<Entity> entities = List.of(cat, zombie, spider, skeleton);
+
+        // Test the exhaustive predicate, then each of its fields on its own so that some of them actually match
+        JsonObject exhaustive = JsonParser.parseString(EXHAUSTIVE_PREDICATE).getAsJsonObject();
+        List<JsonObject> variants = new ArrayList<>();
+        variants.add(exhaustive);
+        for (Map.Entry<String, JsonElement> field : exhaustive.entrySet()) {
+            JsonObject variant = new JsonObject();
+            variant.add(field.getKey(), field.getValue());
+            variants.add(variant);
+        }
+
+        int matches = 0;
+        for (JsonObject json : variants) {
+            EntityPredicate predicate = EntityPredicate.fromJson(json);
+            for (Entity entity : entities) {
+                boolean expected = testVanilla(predicate, world, pos, entity);
+                GameTestUtil.assertTrue("Predicate " + json + " should give " + expected + " for " + entity, predicate.test(world, pos, entity) == expected);
+                if (expected) matches++;
+            }
+        }
+        GameTestUtil.assertTrue("Some single field predicates should match", matches > 0);
+
+        world.getScoreboard().removeTeam(team);
+        entities.forEach(Entity::discard);
+        ctx.complete();
+    }
+
+    /**
+     * Reference implementation of the vanilla 1.18.2 predicate test, followed by Requiem's extensions
+     */
+    private static boolean testVanilla(EntityPredicate predicate, ServerWorld world, @Nullable Vec3d pos, @Nullable Entity entity) {
+        if (predicate == EntityPredicate.ANY) return true;
+        if (entity == null) return false;
+        EntityPredicateAccessor vanilla = (EntityPredicateAccessor) predicate;
+        if (!vanilla.requiem$getType().matches(entity.getType())) return false;
+        if (pos == null) {
+            if (vanilla.requiem$getDistance() != DistancePredicate.ANY) return false;
+        } else if (!vanilla.requiem$getDistance().test(pos.x, pos.y, pos.z, entity.getX(), entity.getY(), entity.getZ())) {
+            return false;
+        }
+        if (!vanilla.requiem$getLocation().test(world, entity.getX(), entity.getY(), entity.getZ())) return false;
+        if (vanilla.requiem$getSteppingOn() != LocationPredicate.ANY) {
+            Vec3d steppingPos = Vec3d.ofCenter(entity.getLandingPos());
+            if (!vanilla.requiem$getSteppingOn().test(world, steppingPos.x, steppingPos.y, steppingPos.z)) return false;
+        }
+        if (!vanilla.requiem$getEffects().test(entity)) return false;
+        if (!vanilla.requiem$getNbt().test(entity)) return false;
+        if (!vanilla.requiem$getFlags().test(entity)) return false;
+        if (!vanilla.requiem$getEquipment().test(entity)) return false;
+        if (!vanilla.requiem$getPlayer().test(entity)) return false;
+        if (!vanilla.requiem$getFishingHook().test(entity)) return false;
+        if (!vanilla.requiem$getLightningBolt().test(entity, world, pos)) return false;
+        if (!testVanilla(vanilla.requiem$getVehicle(), world, pos, entity.getVehicle())) return false;
+        EntityPredicate passenger = vanilla.requiem$getPassenger();
+        if (passenger != EntityPredicate.ANY && entity.getPassengerList().stream().noneMatch(e -> testVanilla(passenger, world, pos, e))) return false;
+        if (!testVanilla(vanilla.requiem$getTargetedEntity(), world, pos, entity instanceof MobEntity mob ? mob.getTarget() : null)) return false;
+        String team = vanilla.requiem$getTeam();
+        if (team != null) {
+            AbstractTeam entityTeam = entity.getScoreboardTeam();
+            if (entityTeam == null || !team.equals(entityTeam.getName())) return false;
+        }
+        if (vanilla.requiem$getCatType() != null && !(entity instanceof CatEntity cat && cat.getTexture().equals(vanilla.requiem$getCatType()))) return false;
+
+        if (entity instanceof LivingEntity living) {
+            ExtendedEntityPredicate extensions = (ExtendedEntityPredicate) predicate;
+            Boolean canBeCured = extensions.requiem$getCanBeCured();
+            PlayerEntity possessor = ((ProtoPossessable) living).getPossessor();
+            if (canBeCured != null && possessor != null && RemnantComponent.KEY.get(possessor).canCurePossessed(living) != canBeCured) return false;
+            return extensions.requiem$getHealthFraction().test(living.getHealth() / living.getMaxHealth());
+        }
+        return true;
+    }
+
+    /**
+     * Generates one of the predicate shapes commonly found in possession data packs
+     */
+    /**
+     * A zombie counting how many times it gets serialized, which NBT predicates do on every test
+     */
+    private static class CountingZombie extends ZombieEntity {
+        int nbtWrites;
+
+        CountingZombie(World world) {
+            super(world);
+        }
+
+        @Override
+        public NbtCompound writeNbt(NbtCompound nbt) {
+            this.nbtWrites++;
+            return super.writeNbt(nbt);
+        }
+    }
+
+    private static JsonElement createPredicateJson(int index, EntityType<?> type) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", Registry.ENTITY_TYPE.getId(type).toString());
+        switch (index % 4) {
+            case 1 -> json.addProperty("nbt", "{PersistenceRequired:1b}");
+            case 2 -> {
+                JsonObject location = new JsonObject();
+                location.addProperty("requiem:biome_tag", "minecraft:is_overworld");
+                json.add("location", location);
+            }
+            case 3 -> {
+                JsonObject healthFraction = new JsonObject();
+                healthFraction.addProperty("max", 0.5);
+                json.add("requiem:health_fraction", healthFraction);
+                JsonObject flags = new JsonObject();
+                flags.addProperty("is_baby", false);
+                json.add("flags", flags);
+            }
+            default -> { }
+        }
+        return json;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.core.possession.PossessorLink;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.mob.ZombieEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the overhead of host exclusion in {@link net.minecraft.world.World#getOtherEntities(Entity, Box, java.util.function.Predicate)}.
+ *
+ * <p>Queries are issued by a mix of regular mobs and a player linked to a host, the way AI sensors and collisions would.
+ * Results are logged rather than asserted, as they depend on the machine running the tests.
+ */
+public class EntityQueryBenchmarks implements FabricGameTest {
+    private static final int MOB_COUNT = 100;
+    private static final int QUERIES = 5_000;
+    /**One query in this many comes from the possessor*/
+    private static final int POSSESSOR_RATIO = 10;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void mixedCallers(TestContext ctx) {
+        List<ZombieEntity> mobs = new ArrayList<>(MOB_COUNT);
+        for (int i = 0; i < MOB_COUNT; i++) {
+            ZombieEntity mob = ctx.spawnMob(EntityType.ZOMBIE, 1 + i % 6, 2, 1 + (i / 6) % 6);
+            mob.setAiDisabled(true);
+            mobs.add(mob);
+        }
+        PlayerEntity possessor = ctx.createMockPlayer();
+        ZombieEntity host = mobs.get(0);
+        ((PossessorLink) possessor).requiem$setLinkedHost(host);
+        Box area = new Box(ctx.getAbsolutePos(BlockPos.ORIGIN)).expand(8);
+
+        try {
+            long start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                Entity caller = i % POSSESSOR_RATIO == 0 ? possessor : mobs.get(i % MOB_COUNT);
+                List<Entity> result = ctx.getWorld().getOtherEntities(caller, area, e -> true);
+                GameTestUtil.assertTrue("Possessor should not find its own host", caller != possessor || !result.contains(host));
+                found += result.size();
+            }
+            long time = System.nanoTime() - start;
+            Requiem.LOGGER.info("[Benchmark] {} entity queries among {} mobs: {} ns/query ({} entities found)", QUERIES, MOB_COUNT, time / QUERIES, found);
+        } finally {
+            ((PossessorLink) possessor).requiem$setLinkedHost(null);
+        }
+        ctx.complete();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.common.possession.item.HealingItemOverride;
+import ladysnake.requiem.common.possession.item.InstancedItemOverride;
+import ladysnake.requiem.common.possession.item.PossessionItemOverrideIndex;
+import ladysnake.requiem.common.possession.item.PossessionItemOverrideWrapper;
+import ladysnake.requiem.core.data.LazyEntityPredicate;
+import ladysnake.requiem.core.data.LazyItemPredicate;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.registry.Registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Measures item override lookups against a large generated override data pack.
+ *
+ * <p>The indexed lookup is compared with a plain scan over every override, which is what lookups used to do.
+ * Results are logged rather than asserted, as they depend on the machine running the tests.
+ */
+public class ItemOverrideBenchmarks implements FabricGameTest {
+    private static final int OVERRIDE_COUNT = 5_000;
+    private static final int LOOKUPS = 2_000;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void largeOverridePack(TestContext ctx) {
+        List<Item> items = Registry.ITEM.stream().filter(item -> item != Items.AIR).toList();
+        List<PossessionItemOverrideWrapper> overrides = new ArrayList<>(OVERRIDE_COUNT);
+        for (int i = 0; i < OVERRIDE_COUNT; i++) {
+            overrides.add(createOverride(i, items.get(i % items.size()), i % 10 == 0 ? EntityType.ZOMBIE : EntityType.SKELETON));
+        }
+        PossessionItemOverrideIndex index = new PossessionItemOverrideIndex(overrides.stream().sorted().toList());
+
+        PlayerEntity player = ctx.createMockPlayer();
+        MobEntity host = Objects.requireNonNull(EntityType.ZOMBIE.create(ctx.getWorld()));
+        ItemStack[] stacks = items.stream().limit(64).map(ItemStack::new).toArray(ItemStack[]::new);
+
+        long scanStart = System.nanoTime();
+        int scanHits = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (scan(overrides, player, host, stacks[i % stacks.length]).isPresent()) scanHits++;
+        }
+        long scanTime = System.nanoTime() - scanStart;
+
+        long indexStart = System.nanoTime();
+        int indexHits = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (index.findOverride(player, host, stacks[i % stacks.length]).isPresent()) indexHits++;
+        }
+        long indexTime = System.nanoTime() - indexStart;
+
+        GameTestUtil.assertTrue("Index found %d overrides, scan found %d".formatted(indexHits, scanHits), scanHits == indexHits);
+        Requiem.LOGGER.info("[Benchmark] {} lookups in {} overrides: scan {} µs/lookup, index {} µs/lookup",
+            LOOKUPS, OVERRIDE_COUNT, scanTime / 1000 / LOOKUPS, indexTime / 1000 / LOOKUPS);
+        ctx.complete();
+    }
+
+    private static PossessionItemOverrideWrapper createOverride(int priority, Item item, EntityType<?> mob) {
+        JsonObject mobJson = new JsonObject();
+        mobJson.addProperty("type", Registry.ENTITY_TYPE.getId(mob).toString());
+        JsonObject itemJson = new JsonObject();
+        JsonArray itemIds = new JsonArray();
+        itemIds.add(Registry.ITEM.getId(item).toString());
+        itemJson.add("items", itemIds);
+        return new PossessionItemOverrideWrapper(
+            priority,
+            true,
+            Optional.empty(),
+            new LazyEntityPredicate(mobJson),
+            new HealingItemOverride(new LazyItemPredicate(itemJson), 0, 0, HealingItemOverride.Usage.EAT_TO_HEAL)
+        ).initNow();
+    }
+
+    private static Optional<InstancedItemOverride> scan(List<PossessionItemOverrideWrapper> overrides, PlayerEntity player, MobEntity host, ItemStack stack) {
+        for (PossessionItemOverrideWrapper wrapper : overrides.stream().sorted().toList()) {
+            Optional<InstancedItemOverride> tested = wrapper.test(player, host, stack);
+            if (tested.isPresent() && tested.get().shortCircuits()) return tested;
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.entity.CurableEntityComponent;
+import ladysnake.requiem.api.v1.entity.ability.MobAbilityController;
+import ladysnake.requiem.api.v1.possession.PossessedData;
+import ladysnake.requiem.api.v1.remnant.AttritionFocus;
+import ladysnake.requiem.common.entity.SkeletonBoneComponent;
+import ladysnake.requiem.core.entity.EntityAiToggle;
+import ladysnake.requiem.core.entity.SoulHolderComponent;
+import ladysnake.requiem.core.record.EntityPositionClerk;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.passive.ChickenEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Measures the heap footprint of idle mobs, as found in large farms.
+ *
+ * <p>Mobs are created without being added to the world, so that only their own state gets measured.
+ * Results are logged rather than asserted, as they depend on the machine and garbage collector running the tests.
+ */
+public class MobFootprintBenchmarks implements FabricGameTest {
+    private static final int MOB_COUNT = 50_000;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void idleMobs50k(TestContext ctx) {
+        long baseline = usedHeap();
+        List<ChickenEntity> mobs = new ArrayList<>(MOB_COUNT);
+
+        for (int i = 0; i < MOB_COUNT; i++) {
+            ChickenEntity mob = Objects.requireNonNull(EntityType.CHICKEN.create(ctx.getWorld()));
+            // Touch every rarely-used component the way an idle mob would during a normal tick
+            EntityAiToggle.isAiDisabled(mob);
+            SoulHolderComponent.isSoulless(mob);
+            EntityPositionClerk.get(mob);
+            PossessedData.KEY.get(mob);
+            MobAbilityController.get(mob).tick();
+            SkeletonBoneComponent.KEY.get(mob);
+            AttritionFocus.KEY.get(mob).hasAttrition();
+            CurableEntityComponent.KEY.get(mob).hasBeenCured();
+            mobs.add(mob);
+        }
+
+        long footprint = usedHeap() - baseline;
+        Requiem.LOGGER.info("[Benchmark] {} idle mobs: {} MiB retained, {} bytes/mob", mobs.size(), footprint >> 20, footprint / mobs.size());
+        ctx.complete();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.entity.MovementAlterer;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.remnant.RemnantTypes;
+import ladysnake.requiem.core.movement.NoClipFlag;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.shape.VoxelShape;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the per-tick allocations of movement alterers for a crowd of vagrant players,
+ * and the cost of collision queries for players walking and phasing through blocks.
+ *
+ * <p>Results are logged rather than asserted, as they depend on the JVM running the tests.
+ */
+public class MovementBenchmarks implements FabricGameTest {
+    private static final int PLAYER_COUNT = 100;
+    private static final int WARMUP_TICKS = 20;
+    private static final int MEASURED_TICKS = 200;
+    /**Players query collisions in a box this much larger than their own, like vanilla movement does when moving fast*/
+    private static final double COLLISION_QUERY_EXPANSION = 1.0;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void vagrantPlayers(TestContext ctx) {
+        List<ServerPlayerEntity> players = new ArrayList<>(PLAYER_COUNT);
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            ServerPlayerEntity player = ctx.spawnServerPlayer(1 + i % 6, 2, 1 + (i / 6) % 6);
+            RemnantComponent remnant = RemnantComponent.get(player);
+            remnant.become(RemnantTypes.REMNANT);
+            remnant.setVagrant(true);
+            GameTestUtil.assertTrue("Player should be vagrant", remnant.isVagrant());
+            players.add(player);
+        }
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemoryEnabled()) {
+            Requiem.LOGGER.warn("[Benchmark] Thread allocation tracking is unavailable, skipping movement benchmark");
+            ctx.complete();
+            return;
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (ServerPlayerEntity player : players) {
+                MovementAlterer.get(player).serverTick();
+            }
+            if (tick >= WARMUP_TICKS) allocated += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        Requiem.LOGGER.info("[Benchmark] {} vagrant players: {} bytes allocated per tick by movement alterers", PLAYER_COUNT, allocated / MEASURED_TICKS);
+        ctx.complete();
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void collidingPlayers(TestContext ctx) {
+        for (BlockPos pos : BlockPos.iterate(0, 1, 0, 7, 4, 7)) {
+            ctx.setBlockState(pos, Blocks.STONE);
+        }
+        List<ServerPlayerEntity> players = new ArrayList<>(PLAYER_COUNT);
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            ServerPlayerEntity player = ctx.spawnServerPlayer(1 + i % 6, 2, 1 + (i / 6) % 6);
+            player.setNoGravity(true);
+            players.add(player);
+        }
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemoryEnabled()) {
+            Requiem.LOGGER.warn("[Benchmark] Thread allocation tracking is unavailable, skipping collision benchmark");
+            ctx.complete();
+            return;
+        }
+
+        long[] walking = measureCollisionQueries(threads, players);
+        // Bypass the phasing delay, only the shape contexts matter here
+        players.forEach(player -> ((NoClipFlag) player).requiem$setNoClipping(true));
+        long[] phasing = measureCollisionQueries(threads, players);
+        players.forEach(player -> ((NoClipFlag) player).requiem$setNoClipping(false));
+
+        GameTestUtil.assertTrue("Walking players should collide with stone", walking[2] > 0);
+        GameTestUtil.assertTrue("Phasing players should not collide with stone", phasing[2] == 0);
+        Requiem.LOGGER.info("[Benchmark] {} players in stone: walking {} µs/tick and {} bytes/tick, phasing {} µs/tick and {} bytes/tick",
+            PLAYER_COUNT, walking[0] / 1000 / MEASURED_TICKS, walking[1] / MEASURED_TICKS, phasing[0] / 1000 / MEASURED_TICKS, phasing[1] / MEASURED_TICKS);
+        ctx.complete();
+    }
+
+    /**
+     * @return total nanoseconds, total allocated bytes, and colliding shapes found in the last tick
+     */
+    private static long[] measureCollisionQueries(com.sun.management.ThreadMXBean threads, List<ServerPlayerEntity> players) {
+        long threadId = Thread.currentThread().getId();
+        long time = 0;
+        long allocated = 0;
+        long collisions = 0;
+        for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+            collisions = 0;
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (ServerPlayerEntity player : players) {
+                Box box = player.getBoundingBox().expand(COLLISION_QUERY_EXPANSION);
+                for (VoxelShape shape : player.world.getBlockCollisions(player, box)) {
+                    if (!shape.isEmpty()) collisions++;
+                }
+            }
+            if (tick >= WARMUP_TICKS) {
+                time += System.nanoTime() - start;
+                allocated += threads.getThreadAllocatedBytes(threadId) - before;
+            }
+        }
+        return new long[] {time, allocated, collisions};
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.management.ThreadMXBean;
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records server tick times and allocations while a {@link PerformanceSuite} scenario runs, and writes them to a JSON report.
+ *
+ * <p>The report is written to the file named by the {@value #REPORT_PROPERTY} system property,
+ * or to {@code requiem-perf-report.json} in the game directory. Regression thresholds are read from the file named by
+ * the {@value #THRESHOLDS_PROPERTY} system property, falling back to the {@code requiem-perf-thresholds.json} bundled
+ * with the test mod. Thresholds are keyed by scenario, and may set {@code p95Ms}, {@code p99Ms}
+ * and {@code allocatedBytesPerTick}; missing keys are not checked.
+ */
+public final class PerformanceReport {
+    public static final String REPORT_PROPERTY = "requiem.perf.report";
+    public static final String THRESHOLDS_PROPERTY = "requiem.perf.thresholds";
+    private static final String DEFAULT_REPORT_FILE = "requiem-perf-report.json";
+    private static final String DEFAULT_THRESHOLDS_RESOURCE = "/requiem-perf-thresholds.json";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, Result> RESULTS = new TreeMap<>();
+    private static @Nullable JsonObject thresholds;
+    private static @Nullable Recording recording;
+
+    static {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            if (recording != null) recording.startTick();
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (recording != null) recording.endTick();
+        });
+    }
+
+    /**
+     * Starts recording the next {@code ticks} server ticks for the given scenario, discarding any unfinished recording.
+     */
+    public static void begin(String scenario, int ticks) {
+        recording = new Recording(scenario, ticks);
+    }
+
+    /**
+     * Stops the current recording, adds its results to the report, and writes the report to disk.
+     */
+    public static Result end() {
+        Recording finished = recording;
+        recording = null;
+        if (finished == null) throw new IllegalStateException("No performance scenario is being recorded");
+        Result result = finished.toResult();
+        RESULTS.put(result.scenario(), result);
+        writeReport();
+        Requiem.LOGGER.info("[Benchmark] Scenario {} over {} ticks: p50 {} ms, p95 {} ms, p99 {} ms, max {} ms, {} bytes allocated per tick",
+            result.scenario(), result.ticks(), "%.2f".formatted(result.p50Ms()), "%.2f".formatted(result.p95Ms()),
+            "%.2f".formatted(result.p99Ms()), "%.2f".formatted(result.maxMs()), result.allocatedBytesPerTick());
+        return result;
+    }
+
+    /**
+     * Fails the current test if the given result exceeds one of the configured thresholds for its scenario.
+     */
+    public static void assertWithinThresholds(Result result) {
+        List<String> regressions = result.findRegressions(getThresholds());
+        GameTestUtil.assertTrue("Scenario " + result.scenario() + " regressed: " + String.join(", ", regressions), regressions.isEmpty());
+    }
+
+    private static JsonObject getThresholds() {
+        if (thresholds == null) {
+            thresholds = loadThresholds();
+        }
+        return thresholds;
+    }
+
+    private static JsonObject loadThresholds() {
+        String path = System.getProperty(THRESHOLDS_PROPERTY);
+        try {
+            if (path != null) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(path))) {
+                    return JsonParser.parseReader(reader).getAsJsonObject();
+                }
+            }
+            try (InputStream in = PerformanceReport.class.getResourceAsStream(DEFAULT_THRESHOLDS_RESOURCE)) {
+                if (in == null) return new JsonObject();
+                return JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)).getAsJsonObject();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Failed to read performance thresholds", e);
+        }
+    }
+
+    private static void writeReport() {
+        String property = System.getProperty(REPORT_PROPERTY);
+        Path path = property != null ? Paths.get(property) : FabricLoader.getInstance().getGameDir().resolve(DEFAULT_REPORT_FILE);
+        JsonObject scenarios = new JsonObject();
+        for (Result result : RESULTS.values()) {
+            scenarios.add(result.scenario(), result.toJson(getThresholds()));
+        }
+        JsonObject report = new JsonObject();
+        report.addProperty("requiemVersion", FabricLoader.getInstance().getModContainer(Requiem.MOD_ID).map(mod -> mod.getMetadata().getVersion().getFriendlyString()).orElse("unknown"));
+        report.add("scenarios", scenarios);
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                GSON.toJson(report, writer);
+            }
+        } catch (IOException e) {
+            Requiem.LOGGER.error("[Benchmark] Failed to write performance report to {}", path, e);
+        }
+    }
+
+    public record Result(String scenario, int ticks, double p50Ms, double p95Ms, double p99Ms, double maxMs, long allocatedBytesPerTick) {
+        List<String> findRegressions(JsonObject thresholds) {
+            List<String> regressions = new ArrayList<>();
+            if (thresholds.get(this.scenario) instanceof JsonObject limits) {
+                checkLimit(limits, "p95Ms", this.p95Ms, regressions);
+                checkLimit(limits, "p99Ms", this.p99Ms, regressions);
+                // Allocations cannot be measured on every JVM
+                if (this.allocatedBytesPerTick >= 0) checkLimit(limits, "allocatedBytesPerTick", this.allocatedBytesPerTick, regressions);
+            }
+            return regressions;
+        }
+
+        private static void checkLimit(JsonObject limits, String key, double value, List<String> regressions) {
+            JsonElement limit = limits.get(key);
+            if (limit != null && value > limit.getAsDouble()) {
+                regressions.add("%s %.2f > %s".formatted(key, value, limit.getAsString()));
+            }
+        }
+
+        JsonObject toJson(JsonObject thresholds) {
+            JsonObject json = new JsonObject();
+            json.addProperty("ticks", this.ticks);
+            json.addProperty("p50Ms", this.p50Ms);
+            json.addProperty("p95Ms", this.p95Ms);
+            json.addProperty("p99Ms", this.p99Ms);
+            json.addProperty("maxMs", this.maxMs);
+            json.addProperty("allocatedBytesPerTick", this.allocatedBytesPerTick);
+            if (thresholds.get(this.scenario) instanceof JsonObject limits) json.add("thresholds", limits);
+            JsonArray regressions = new JsonArray();
+            this.findRegressions(thresholds).forEach(regressions::add);
+            json.add("regressions", regressions);
+            return json;
+        }
+    }
+
+    private static final class Recording {
+        private final String scenario;
+        private final long[] tickNanos;
+        private final @Nullable ThreadMXBean threads;
+        private int ticks;
+        private long tickStart = -1;
+        private long allocationStart;
+        private long allocated;
+
+        Recording(String scenario, int ticks) {
+            this.scenario = scenario;
+            this.tickNanos = new long[ticks];
+            this.threads = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean t && t.isThreadAllocatedMemoryEnabled() ? t : null;
+        }
+
+        void startTick() {
+            if (this.ticks >= this.tickNanos.length) return;
+            if (this.threads != null) this.allocationStart = this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            this.tickStart = System.nanoTime();
+        }
+
+        void endTick() {
+            // The recording may have begun in the middle of a tick
+            if (this.tickStart < 0) return;
+            this.tickNanos[this.ticks++] = System.nanoTime() - this.tickStart;
+            if (this.threads != null) this.allocated += this.threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - this.allocationStart;
+            this.tickStart = -1;
+        }
+
+        Result toResult() {
+            if (this.ticks == 0) throw new IllegalStateException("No tick was recorded for scenario " + this.scenario);
+            long[] sorted = Arrays.copyOf(this.tickNanos, this.ticks);
+            Arrays.sort(sorted);
+            return new Result(
+                this.scenario,
+                this.ticks,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.95),
+                percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1_000_000.0,
+                this.threads != null ? this.allocated / this.ticks : -1
+            );
+        }
+
+        private static double percentile(long[] sorted, double rank) {
+            // Nearest-rank method
+            int index = (int) Math.ceil(rank * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
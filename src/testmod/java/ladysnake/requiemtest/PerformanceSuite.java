@@ -0,0 +1,201 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.api.v1.possession.PossessionComponent;
+import ladysnake.requiem.api.v1.record.GlobalRecord;
+import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.RequiemRecordTypes;
+import ladysnake.requiem.common.block.RequiemBlocks;
+import ladysnake.requiem.common.block.RunestoneBlockEntity;
+import ladysnake.requiem.common.entity.RequiemEntities;
+import ladysnake.requiem.common.remnant.RemnantTypes;
+import ladysnake.requiem.core.record.EntityPositionClerk;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.decoration.ArmorStandEntity;
+import net.minecraft.entity.mob.HuskEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scripted scenarios measuring the whole server tick under typical Requiem loads.
+ *
+ * <p>Each scenario runs in its own batch, so that no other test shares the measured ticks.
+ * Tick time percentiles and allocation rates are written to a report by {@link PerformanceReport},
+ * and the test fails if they exceed the configured regression thresholds.
+ */
+public class PerformanceSuite implements FabricGameTest {
+    private static final int WARMUP_TICKS = 40;
+    private static final int MEASURED_TICKS = 200;
+    private static final int TICK_LIMIT = WARMUP_TICKS + MEASURED_TICKS + 20;
+    private static final int OBELISK_COUNT = 200;
+    /**Obelisks are 3 blocks wide and tall, with a gap between each of them*/
+    private static final int OBELISK_SPACING = 4;
+    private static final int OBELISKS_PER_LAYER = 4;
+    private static final int RECORD_COUNT = 5_000;
+    /**Bodies are spread out so that entity collisions do not dominate the measurements*/
+    private static final int RECORD_GRID_SIZE = 16;
+    private static final int POSSESSED_MOB_COUNT = 100;
+    private static final int WANDERING_SOUL_COUNT = 500;
+
+    @GameTest(structureName = EMPTY_STRUCTURE, batchId = "requiem_perf_obelisks", tickLimit = TICK_LIMIT)
+    public void obelisks(TestContext ctx) {
+        BlockState frame = RequiemBlocks.TACHYLITE.getDefaultState();
+        BlockState core = RequiemBlocks.RUNIC_TACHYLITE_ATTRITION.getDefaultState();
+        List<BlockPos> placed = new ArrayList<>();
+        List<BlockPos> cores = new ArrayList<>(OBELISK_COUNT);
+
+        for (int i = 0; i < OBELISK_COUNT; i++) {
+            // 1-wide obelisks: a full frame layer below and above a core surrounded by frame pillars
+            BlockPos origin = new BlockPos(
+                1 + (i % 2) * OBELISK_SPACING,
+                3 + (i / OBELISKS_PER_LAYER) * OBELISK_SPACING,
+                1 + ((i / 2) % 2) * OBELISK_SPACING
+            );
+            for (BlockPos pos : BlockPos.iterate(origin.add(-1, -1, -1), origin.add(1, 1, 1))) {
+                boolean pillar = Math.abs(pos.getX() - origin.getX()) == 1 && Math.abs(pos.getZ() - origin.getZ()) == 1;
+                if (pos.getY() != origin.getY() || pillar) {
+                    ctx.setBlockState(pos, frame);
+                    placed.add(pos.toImmutable());
+                }
+            }
+            cores.add(origin);
+        }
+        for (BlockPos origin : cores) {
+            ctx.setBlockState(origin, core);
+        }
+
+        ctx.waitAndRun(WARMUP_TICKS, () -> {
+            for (BlockPos origin : cores) {
+                GameTestUtil.assertTrue("Obelisk at " + origin + " should be active", ctx.getBlockEntity(origin) instanceof RunestoneBlockEntity);
+            }
+            PerformanceReport.begin("obelisks", MEASURED_TICKS);
+        });
+        finishScenario(ctx, () -> {
+            cores.forEach(pos -> ctx.setBlockState(pos, Blocks.AIR));
+            placed.forEach(pos -> ctx.setBlockState(pos, Blocks.AIR));
+        });
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE, batchId = "requiem_perf_records", tickLimit = TICK_LIMIT)
+    public void records(TestContext ctx) {
+        GlobalRecordKeeper keeper = GlobalRecordKeeper.get(ctx.getWorld());
+        List<ArmorStandEntity> bodies = new ArrayList<>(RECORD_COUNT);
+        List<GlobalRecord> records = new ArrayList<>(RECORD_COUNT);
+        int perLayer = RECORD_GRID_SIZE * RECORD_GRID_SIZE;
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            int layer = i / perLayer;
+            ArmorStandEntity body = ctx.spawnEntity(EntityType.ARMOR_STAND, 0.5 + i % RECORD_GRID_SIZE, 2 + layer * 2, 0.5 + (i / RECORD_GRID_SIZE) % RECORD_GRID_SIZE);
+            body.setNoGravity(true);
+            GlobalRecord record = keeper.createRecord();
+            EntityPositionClerk.get(body).linkWith(record, RequiemRecordTypes.BODY_REF);
+            bodies.add(body);
+            records.add(record);
+        }
+
+        ctx.waitAndRun(WARMUP_TICKS, () -> PerformanceReport.begin("records", MEASURED_TICKS));
+        finishScenario(ctx, () -> {
+            records.forEach(GlobalRecord::invalidate);
+            bodies.forEach(Entity::discard);
+        });
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE, batchId = "requiem_perf_possession", tickLimit = TICK_LIMIT)
+    public void possessedMobs(TestContext ctx) {
+        List<ServerPlayerEntity> players = new ArrayList<>(POSSESSED_MOB_COUNT);
+        List<HuskEntity> hosts = new ArrayList<>(POSSESSED_MOB_COUNT);
+
+        for (int i = 0; i < POSSESSED_MOB_COUNT; i++) {
+            int x = 1 + i % 6;
+            int z = 1 + (i / 6) % 6;
+            ServerPlayerEntity player = ctx.spawnServerPlayer(x, 2, z);
+            RemnantComponent remnant = RemnantComponent.get(player);
+            remnant.become(RemnantTypes.REMNANT);
+            remnant.setVagrant(true);
+            // Husks do not burn in daylight, which keeps the scenario stable
+            HuskEntity host = ctx.spawnMob(EntityType.HUSK, x, 2, z);
+            GameTestUtil.assertTrue("Player should possess the husk", PossessionComponent.get(player).startPossessing(host));
+            players.add(player);
+            hosts.add(host);
+        }
+
+        ctx.waitAndRun(WARMUP_TICKS, () -> {
+            for (ServerPlayerEntity player : players) {
+                GameTestUtil.assertTrue("Possession should still be ongoing", PossessionComponent.get(player).isPossessionOngoing());
+            }
+            PerformanceReport.begin("possessedMobs", MEASURED_TICKS);
+        });
+        finishScenario(ctx, () -> {
+            players.forEach(player -> PossessionComponent.get(player).stopPossessing(false));
+            hosts.forEach(Entity::discard);
+        });
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE, batchId = "requiem_perf_souls", tickLimit = TICK_LIMIT)
+    public void wanderingSouls(TestContext ctx) {
+        List<Entity> souls = new ArrayList<>(WANDERING_SOUL_COUNT);
+
+        for (int i = 0; i < WANDERING_SOUL_COUNT; i++) {
+            // Obelisk souls without a target wander around for 30 seconds or more, outliving the scenario
+            souls.add(ctx.spawnEntity(RequiemEntities.OBELISK_SOUL, 0.5 + i % 8, 3 + (i / 64) % 4, 0.5 + (i / 8) % 8));
+        }
+
+        ctx.waitAndRun(WARMUP_TICKS, () -> PerformanceReport.begin("wanderingSouls", MEASURED_TICKS));
+        finishScenario(ctx, () -> souls.forEach(Entity::discard));
+    }
+
+    private static void finishScenario(TestContext ctx, Runnable cleanup) {
+        ctx.waitAndRun(WARMUP_TICKS + MEASURED_TICKS + 1, () -> {
+            try {
+                PerformanceReport.assertWithinThresholds(PerformanceReport.end());
+            } finally {
+                cleanup.run();
+            }
+            ctx.complete();
+        });
+    }
+}
@@ -34,7 +34,33 @@
  */
 package ladysnake.requiemtest;
 
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.common.entity.PlayerShellEntity;
+import ladysnake.requiem.common.entity.RequiemEntities;
+import ladysnake.requiem.common.gamerule.RequiemGamerules;
 import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.world.GameRules;
 
 public class PlayerShellsTests implements FabricGameTest {
+    @GameTest(structureName = EMPTY_STRUCTURE, batchId = "requiem_shell_dormancy")
+    public void shellsWithoutNearbyPlayersGoDormant(TestContext ctx) {
+        // shrink the range so that players left around by other tests cannot keep the shell awake
+        GameRules.IntRule dormancyRange = ctx.getWorld().getGameRules().get(RequiemGamerules.SHELL_DORMANCY_RANGE);
+        int previousRange = dormancyRange.get();
+        dormancyRange.set(2, ctx.getWorld().getServer());
+        PlayerShellEntity shell = (PlayerShellEntity) ctx.spawnEntity(RequiemEntities.PLAYER_SHELL, 1, 2, 1);
+        ctx.waitAndRun(50, () -> {
+            try {
+                GameTestUtil.assertTrue("Shell should be dormant when no player is nearby", shell.isDormant());
+                shell.damage(DamageSource.GENERIC, 1);
+                GameTestUtil.assertTrue("Shell should wake up when damaged", !shell.isDormant());
+            } finally {
+                dormancyRange.set(previousRange, ctx.getWorld().getServer());
+            }
+            ctx.complete();
+        });
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.common.remnant.PlayerSplitter;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.enchantment.Enchantments;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.text.LiteralText;
+
+/**
+ * Compares the latency of copying a fully loaded player's state through NBT and through {@link PlayerSplitter#copyPlayerState}.
+ *
+ * <p>Results are logged rather than asserted, as they depend on the JVM running the tests.
+ */
+public class PlayerSplitBenchmarks implements FabricGameTest {
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void loadedPlayerCopy(TestContext ctx) {
+        ServerPlayerEntity from = ctx.spawnServerPlayer(1, 2, 1);
+        // each path gets its own target, so that the assertions only check the direct copy
+        ServerPlayerEntity nbtTarget = ctx.spawnServerPlayer(2, 2, 2);
+        ServerPlayerEntity to = ctx.spawnServerPlayer(3, 2, 3);
+        fillInventory(from.getInventory());
+        from.addStatusEffect(new StatusEffectInstance(StatusEffects.SPEED, 1000, 1));
+        from.addStatusEffect(new StatusEffectInstance(StatusEffects.STRENGTH, 1000, 1));
+        from.addStatusEffect(new StatusEffectInstance(StatusEffects.ABSORPTION, 1000, 1));
+        from.addExperienceLevels(30);
+
+        long nbtNanos = time(() -> PlayerSplitter.performNbtCopy(writeCopiedNbt(from), nbtTarget));
+        long directNanos = time(() -> PlayerSplitter.copyPlayerState(from, to));
+        long unknownDataNanos = time(() -> PlayerSplitter.copyUnknownData(from, to));
+
+        GameTestUtil.assertTrue("Inventory should have been copied", ItemStack.areEqual(from.getInventory().getStack(20), to.getInventory().getStack(20)));
+        GameTestUtil.assertTrue("Copied stacks should not be shared", from.getInventory().getStack(20) != to.getInventory().getStack(20));
+        GameTestUtil.assertTrue("Experience should have been copied", to.experienceLevel == from.experienceLevel);
+        GameTestUtil.assertTrue("Effects should have been copied", to.hasStatusEffect(StatusEffects.STRENGTH));
+        Requiem.LOGGER.info(
+            "[Benchmark] Player state copy with {} components: {} us through NBT, {} us direct (including {} us looking for other mods' data)",
+            from.getComponentContainer().keys().size(),
+            nbtNanos / 1000.0,
+            directNanos / 1000.0,
+            unknownDataNanos / 1000.0
+        );
+        ctx.complete();
+    }
+
+    /**
+     * Serializes {@code player} without the identity and spawn data, which must not be copied onto another live player
+     */
+    private static NbtCompound writeCopiedNbt(ServerPlayerEntity player) {
+        NbtCompound nbt = player.writeNbt(new NbtCompound());
+        for (String key : new String[] {"UUID", "SpawnX", "SpawnY", "SpawnZ", "SpawnForced", "SpawnAngle", "SpawnDimension"}) {
+            nbt.remove(key);
+        }
+        return nbt;
+    }
+
+    private static void fillInventory(PlayerInventory inventory) {
+        for (int i = 0; i < inventory.size(); i++) {
+            ItemStack stack = new ItemStack(i % 2 == 0 ? Items.DIAMOND_SWORD : Items.WRITTEN_BOOK);
+            stack.addEnchantment(Enchantments.UNBREAKING, 3);
+            stack.setCustomName(new LiteralText("Item #" + i));
+            inventory.setStack(i, stack);
+        }
+    }
+
+    /**
+     * @return the average duration of {@code action}, in nanoseconds
+     */
+    private static long time(Runnable action) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - start) / MEASURED_ITERATIONS;
+    }
+}
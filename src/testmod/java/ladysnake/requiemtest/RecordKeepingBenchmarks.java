@@ -0,0 +1,116 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.record.GlobalRecord;
+import ladysnake.requiem.api.v1.record.GlobalRecordKeeper;
+import ladysnake.requiem.common.RequiemRecordTypes;
+import ladysnake.requiem.common.gamerule.RequiemGamerules;
+import ladysnake.requiem.core.record.EntityPositionClerk;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.decoration.ArmorStandEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the tick cost of keeping global records in sync with linked entities.
+ *
+ * <p>Results are logged rather than asserted, as they depend on the machine running the tests.
+ */
+public class RecordKeepingBenchmarks implements FabricGameTest {
+    private static final int WARMUP_TICKS = 50;
+    private static final int MEASURED_TICKS = 200;
+    /**Shells move by this amount every tick, crossing a block boundary every 16 ticks*/
+    private static final double DRIFT_PER_TICK = 1 / 16.0;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void linkedShells1k(TestContext ctx) {
+        benchmarkLinkedShells(ctx, 1_000);
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void linkedShells10k(TestContext ctx) {
+        benchmarkLinkedShells(ctx, 10_000);
+    }
+
+    private static void benchmarkLinkedShells(TestContext ctx, int shellCount) {
+        GlobalRecordKeeper keeper = GlobalRecordKeeper.get(ctx.getWorld());
+        List<ArmorStandEntity> shells = new ArrayList<>(shellCount);
+        List<GlobalRecord> records = new ArrayList<>(shellCount);
+
+        for (int i = 0; i < shellCount; i++) {
+            ArmorStandEntity shell = ctx.spawnEntity(EntityType.ARMOR_STAND, 1.5, 2, 1.5);
+            shell.setNoGravity(true);
+            GlobalRecord record = keeper.createRecord();
+            EntityPositionClerk.get(shell).linkWith(record, RequiemRecordTypes.BODY_REF);
+            shells.add(shell);
+            records.add(record);
+        }
+
+        try {
+            EntityPositionClerk.setDriftInterval(0);
+            double pollingCost = measureKeeperTick(keeper, shells);
+            EntityPositionClerk.setDriftInterval(EntityPositionClerk.DEFAULT_DRIFT_INTERVAL);
+            double eventCost = measureKeeperTick(keeper, shells);
+            Requiem.LOGGER.info("[Benchmark] Record keeping with {} linked shells: polling {} µs/tick, event-driven {} µs/tick", shellCount, "%.1f".formatted(pollingCost), "%.1f".formatted(eventCost));
+        } finally {
+            EntityPositionClerk.setDriftInterval(ctx.getWorld().getGameRules().getInt(RequiemGamerules.ENTITY_RECORD_DRIFT_INTERVAL));
+            records.forEach(GlobalRecord::invalidate);
+            shells.forEach(ArmorStandEntity::discard);
+        }
+
+        ctx.complete();
+    }
+
+    private static double measureKeeperTick(GlobalRecordKeeper keeper, List<ArmorStandEntity> shells) {
+        long total = 0;
+        for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+            // movement is timed too, as the event-driven variant does part of its work when entities move
+            long start = System.nanoTime();
+            for (ArmorStandEntity shell : shells) {
+                shell.setPosition(shell.getX() + DRIFT_PER_TICK, shell.getY(), shell.getZ());
+            }
+            keeper.tick();
+            EntityPositionClerk.flushDrift(tick);
+            if (tick >= WARMUP_TICKS) total += System.nanoTime() - start;
+        }
+        return total / 1000.0 / MEASURED_TICKS;
+    }
+}
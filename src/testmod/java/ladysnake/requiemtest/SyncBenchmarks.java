@@ -0,0 +1,190 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.entity.ability.AbilityType;
+import ladysnake.requiem.api.v1.entity.ability.MobAbilityController;
+import ladysnake.requiem.api.v1.possession.PossessionComponent;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.entity.effect.PenanceComponent;
+import ladysnake.requiem.common.entity.effect.PenanceStatusEffect;
+import ladysnake.requiem.common.entity.effect.RequiemStatusEffects;
+import ladysnake.requiem.common.remnant.RemnantTypes;
+import ladysnake.requiem.core.util.DeferredComponentSync;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.mob.HuskEntity;
+import net.minecraft.entity.mob.ZombieEntity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how many component syncs get sent to players under penance and to players spamming abilities,
+ * compared to the same scenario with {@link DeferredComponentSync} bypassed.
+ *
+ * <p>Byte counts only include the component's own payload, not the packet headers added by Cardinal Components.
+ * Coalescing is asserted, exact figures are only logged.
+ */
+public class SyncBenchmarks implements FabricGameTest {
+    private static final int PLAYER_COUNT = 20;
+    private static final int MEASURED_TICKS = 200;
+    /**How many ability uses each player sends per tick, as laggy clients deliver several clicks at once*/
+    private static final int ABILITY_USES_PER_TICK = 3;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void penanceSyncs(TestContext ctx) {
+        MinecraftServer server = ctx.getWorld().getServer();
+        List<ServerPlayerEntity> players = new ArrayList<>(PLAYER_COUNT);
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            ServerPlayerEntity player = ctx.spawnServerPlayer(1 + i % 6, 2, 1 + (i / 6) % 6);
+            // long enough for both measurements, short enough that penance never applies
+            player.addStatusEffect(new StatusEffectInstance(RequiemStatusEffects.PENANCE, MEASURED_TICKS * 4, PenanceStatusEffect.MOB_BAN_THRESHOLD));
+            players.add(player);
+        }
+        DeferredComponentSync.flush(server);
+
+        Runnable tick = () -> {
+            for (ServerPlayerEntity player : players) {
+                PenanceComponent.KEY.get(player).serverTick();
+            }
+        };
+        Result bypassed = measure(server, tick, true);
+        Result deferred = measure(server, tick, false);
+
+        PacketByteBuf buf = PacketByteBufs.create();
+        PenanceComponent.KEY.get(players.get(0)).writeSyncPacket(buf, players.get(0));
+        GameTestUtil.assertTrue("Penance should not sync every tick", deferred.sent() * 4 <= PLAYER_COUNT * MEASURED_TICKS);
+        GameTestUtil.assertTrue("Penance syncs should not exceed the bypassed baseline", deferred.sent() <= bypassed.sent());
+        log("players under penance", deferred, bypassed, buf.readableBytes());
+        ctx.complete();
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void abilitySyncs(TestContext ctx) {
+        MinecraftServer server = ctx.getWorld().getServer();
+        List<ServerPlayerEntity> players = new ArrayList<>(PLAYER_COUNT);
+        List<Entity> spawned = new ArrayList<>(PLAYER_COUNT * 2);
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            int x = 1 + i % 6;
+            int z = 1 + (i / 6) % 6;
+            ServerPlayerEntity player = ctx.spawnServerPlayer(x, 2, z);
+            RemnantComponent remnant = RemnantComponent.get(player);
+            remnant.become(RemnantTypes.REMNANT);
+            remnant.setVagrant(true);
+            HuskEntity host = ctx.spawnMob(EntityType.HUSK, x, 2, z);
+            GameTestUtil.assertTrue("Player should possess the husk", PossessionComponent.get(player).startPossessing(host));
+            ZombieEntity target = ctx.spawnMob(EntityType.ZOMBIE, x, 2, z);
+            target.setAiDisabled(true);
+            players.add(player);
+            spawned.add(host);
+            spawned.add(target);
+        }
+        DeferredComponentSync.flush(server);
+
+        Runnable tick = () -> {
+            for (int i = 0; i < PLAYER_COUNT; i++) {
+                ServerPlayerEntity player = players.get(i);
+                MobAbilityController abilities = MobAbilityController.get(player);
+                for (int use = 0; use < ABILITY_USES_PER_TICK; use++) {
+                    // same as the server's handling of ability use messages
+                    abilities.useDirect(AbilityType.ATTACK, spawned.get(i * 2 + 1));
+                    DeferredComponentSync.markDirty(MobAbilityController.KEY, player);
+                }
+                abilities.tick();
+            }
+        };
+
+        try {
+            Result bypassed = measure(server, tick, true);
+            Result deferred = measure(server, tick, false);
+
+            PacketByteBuf buf = PacketByteBufs.create();
+            MobAbilityController.get(players.get(0)).writeSyncPacket(buf, players.get(0));
+            GameTestUtil.assertTrue("Ability syncs should be coalesced", deferred.sent() * 2 <= bypassed.sent());
+            GameTestUtil.assertTrue("Abilities should sync at most once per tick", deferred.sent() <= PLAYER_COUNT * MEASURED_TICKS);
+            log("players spamming abilities", deferred, bypassed, buf.readableBytes());
+        } finally {
+            for (ServerPlayerEntity player : players) {
+                PossessionComponent.get(player).stopPossessing(false);
+            }
+            spawned.forEach(Entity::discard);
+        }
+        ctx.complete();
+    }
+
+    private static Result measure(MinecraftServer server, Runnable tick, boolean bypassed) {
+        long requested = 0;
+        long sent = 0;
+        try {
+            DeferredComponentSync.setBypassed(bypassed);
+            for (int i = 0; i < MEASURED_TICKS; i++) {
+                tick.run();
+                requested += DeferredComponentSync.getRequestCount();
+                DeferredComponentSync.flush(server);
+                sent += DeferredComponentSync.getSentLastTick();
+            }
+        } finally {
+            DeferredComponentSync.setBypassed(false);
+        }
+        return new Result(requested, sent);
+    }
+
+    private static void log(String scenario, Result deferred, Result bypassed, int payloadBytes) {
+        double seconds = MEASURED_TICKS / 20.0;
+        Requiem.LOGGER.info(
+            "[Benchmark] {} {}: {} sync requests, {} packets ({} bytes) per player per second, {} packets ({} bytes) when bypassed",
+            PLAYER_COUNT,
+            scenario,
+            deferred.requested() / (PLAYER_COUNT * seconds),
+            deferred.sent() / (PLAYER_COUNT * seconds),
+            deferred.sent() * payloadBytes / (PLAYER_COUNT * seconds),
+            bypassed.sent() / (PLAYER_COUNT * seconds),
+            bypassed.sent() * payloadBytes / (PLAYER_COUNT * seconds)
+        );
+    }
+
+    private record Result(long requested, long sent) { }
+}
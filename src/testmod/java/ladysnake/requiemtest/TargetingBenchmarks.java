@@ -0,0 +1,176 @@
+/*
+ * Requiem
+ * Copyright (C) 2017-2022 Ladysnake
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses>.
+ *
+ * Linking this mod statically or dynamically with other
+ * modules is making a combined work based on this mod.
+ * Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *
+ * In addition, as a special exception, the copyright holders of
+ * this mod give you permission to combine this mod
+ * with free software programs or libraries that are released under the GNU LGPL
+ * and with code included in the standard release of Minecraft under All Rights Reserved (or
+ * modified versions of such code, with unchanged license).
+ * You may copy and distribute such a system following the terms of the GNU GPL for this mod
+ * and the licenses of the other code concerned.
+ *
+ * Note that people who make modified versions of this mod are not obligated to grant
+ * this special exception for their modified versions; it is their choice whether to do so.
+ * The GNU General Public License gives permission to release a modified version without this exception;
+ * this exception also makes it possible to release a modified version which carries forward this exception.
+ */
+package ladysnake.requiemtest;
+
+import io.github.ladysnake.elmendorf.GameTestUtil;
+import ladysnake.requiem.Requiem;
+import ladysnake.requiem.api.v1.remnant.RemnantComponent;
+import ladysnake.requiem.common.remnant.RemnantFlags;
+import ladysnake.requiem.common.remnant.RemnantTypes;
+import ladysnake.requiem.core.util.RayHelper;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.ai.TargetPredicate;
+import net.minecraft.entity.decoration.ArmorStandEntity;
+import net.minecraft.entity.mob.ZombieEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.projectile.ProjectileUtil;
+import net.minecraft.predicate.entity.EntityPredicates;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compares per-ability entity raycasts with the single query used for ability targeting,
+ * and measures the soul checks added to the predicates mobs use to pick their targets.
+ *
+ * <p>Targeting normally runs every frame on the client, which cannot run in the gametest environment,
+ * so the same queries are run here from a server-side viewer surrounded by mobs.
+ * Results are logged rather than asserted, as they depend on the machine running the tests.
+ */
+public class TargetingBenchmarks implements FabricGameTest {
+    private static final int MOB_COUNT = 500;
+    private static final double[] ABILITY_RANGES = {3.0, 6.0, 16.0};
+    private static final int FRAMES = 2_000;
+    private static final int PLAYER_COUNT = 50;
+    private static final int HOSTILE_COUNT = 2_000;
+    private static final double TARGETING_RANGE = 16.0;
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void crowdedTargeting(TestContext ctx) {
+        for (int i = 0; i < MOB_COUNT; i++) {
+            ZombieEntity mob = ctx.spawnMob(EntityType.ZOMBIE, 2 + i % 5, 2, 2 + (i / 5) % 6);
+            mob.setAiDisabled(true);
+        }
+        ArmorStandEntity viewer = ctx.spawnEntity(EntityType.ARMOR_STAND, 4.5, 2, 0.5);
+        Vec3d start = viewer.getCameraPosVec(1.0F);
+        Vec3d direction = viewer.getRotationVec(1.0F);
+        Predicate<Entity> predicate = e -> !e.isSpectator() && e.collides();
+        double maxRange = ABILITY_RANGES[ABILITY_RANGES.length - 1];
+
+        Entity perAbilityTarget = null;
+        long perAbilityStart = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            perAbilityTarget = null;
+            for (double range : ABILITY_RANGES) {
+                Vec3d end = start.add(direction.multiply(range));
+                Box box = viewer.getBoundingBox().stretch(direction.multiply(range)).expand(1.0D);
+                EntityHitResult hit = ProjectileUtil.raycast(viewer, start, end, box, predicate, range * range);
+                if (hit != null) {
+                    perAbilityTarget = hit.getEntity();
+                    break;
+                }
+            }
+        }
+        long perAbilityTime = System.nanoTime() - perAbilityStart;
+
+        RayHelper.NearestHit hit = new RayHelper.NearestHit();
+        long singlePassStart = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            RayHelper.raycastNearest(viewer, start, direction, maxRange, maxRange * maxRange, predicate, hit);
+        }
+        long singlePassTime = System.nanoTime() - singlePassStart;
+
+        GameTestUtil.assertTrue("Single pass should find the same target as per-ability raycasts", hit.getEntity() == perAbilityTarget);
+        Requiem.LOGGER.info("[Benchmark] Targeting among {} mobs: per-ability {} µs/frame, single pass {} µs/frame",
+            MOB_COUNT, perAbilityTime / 1000 / FRAMES, singlePassTime / 1000 / FRAMES);
+        ctx.complete();
+    }
+
+    @GameTest(structureName = EMPTY_STRUCTURE)
+    public void crowdedMobTargeting(TestContext ctx) {
+        List<ServerPlayerEntity> players = new ArrayList<>(PLAYER_COUNT);
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            ServerPlayerEntity player = ctx.spawnServerPlayer(1 + i % 6, 2, 1 + (i / 6) % 6);
+            RemnantComponent remnant = RemnantComponent.get(player);
+            remnant.become(RemnantTypes.REMNANT);
+            // Half of the players are souls, to exercise both outcomes of every check
+            remnant.setVagrant(i % 2 == 0);
+            players.add(player);
+        }
+        List<ZombieEntity> mobs = new ArrayList<>(HOSTILE_COUNT);
+        for (int i = 0; i < HOSTILE_COUNT; i++) {
+            ZombieEntity mob = ctx.spawnMob(EntityType.ZOMBIE, 1 + i % 6, 2, 1 + (i / 6) % 6);
+            mob.setAiDisabled(true);
+            mobs.add(mob);
+        }
+
+        for (ServerPlayerEntity player : players) {
+            GameTestUtil.assertTrue("Cached vagrant flag should match the component", RemnantFlags.isVagrant(player) == RemnantComponent.isVagrant(player));
+            GameTestUtil.assertTrue("Cached incorporeal flag should match the component", RemnantFlags.isIncorporeal(player) == RemnantComponent.isIncorporeal(player));
+        }
+
+        int componentMatches = 0;
+        long componentStart = System.nanoTime();
+        for (ZombieEntity mob : mobs) {
+            for (ServerPlayerEntity player : players) {
+                if (!RemnantComponent.isIncorporeal(player) && !RemnantComponent.isVagrant(player)) componentMatches++;
+            }
+        }
+        long componentTime = System.nanoTime() - componentStart;
+
+        int flagMatches = 0;
+        long flagStart = System.nanoTime();
+        for (ZombieEntity mob : mobs) {
+            for (ServerPlayerEntity player : players) {
+                if (!RemnantFlags.isIncorporeal(player) && !RemnantFlags.isVagrant(player)) flagMatches++;
+            }
+        }
+        long flagTime = System.nanoTime() - flagStart;
+        GameTestUtil.assertTrue("Cached flags should agree with components", componentMatches == flagMatches);
+
+        TargetPredicate targetPredicate = TargetPredicate.createAttackable().setBaseMaxDistance(TARGETING_RANGE);
+        long targetingStart = System.nanoTime();
+        for (ZombieEntity mob : mobs) {
+            PlayerEntity target = ctx.getWorld().getClosestPlayer(targetPredicate, mob);
+            GameTestUtil.assertTrue("Mobs should not target souls", target == null || !RemnantComponent.isVagrant(target));
+            ctx.getWorld().getClosestPlayer(mob.getX(), mob.getY(), mob.getZ(), TARGETING_RANGE, EntityPredicates.EXCEPT_CREATIVE_OR_SPECTATOR);
+        }
+        long targetingTime = System.nanoTime() - targetingStart;
+
+        Requiem.LOGGER.info("[Benchmark] {} mobs checking {} players: component lookups {} µs, cached flags {} µs, full target selection {} µs",
+            HOSTILE_COUNT, PLAYER_COUNT, componentTime / 1000, flagTime / 1000, targetingTime / 1000);
+        mobs.forEach(Entity::discard);
+        ctx.complete();
+    }
+}